@@ -14,6 +14,7 @@ package com.trollworks.gcs;
 import com.trollworks.gcs.advantage.AdvantageList;
 import com.trollworks.gcs.character.GURPSCharacter;
 import com.trollworks.gcs.datafile.DataFile;
+import com.trollworks.gcs.datafile.RoundTripVerifier;
 import com.trollworks.gcs.equipment.EquipmentList;
 import com.trollworks.gcs.modifier.AdvantageModifierList;
 import com.trollworks.gcs.modifier.EquipmentModifierList;
@@ -30,6 +31,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import javax.swing.UIManager;
@@ -51,28 +53,34 @@ public class GCSJsonUpdater {
             dialog.setMultiSelectionEnabled(true);
             int counter = 0;
             if (dialog.showDialog(null, "Select") == JFileChooser.APPROVE_OPTION) {
-                File[] selection = dialog.getSelectedFiles();
+                RoundTripVerifier verifier  = new RoundTripVerifier(0);
+                File[]            selection = dialog.getSelectedFiles();
                 if (selection.length == 0) {
-                    counter = traverse(dialog.getCurrentDirectory().toPath(), counter);
+                    counter = traverse(dialog.getCurrentDirectory().toPath(), counter, verifier);
                 } else {
                     for (File file : selection) {
-                        counter = traverse(file.toPath(), counter);
+                        counter = traverse(file.toPath(), counter, verifier);
                     }
                 }
-                JOptionPane.showMessageDialog(null, String.format("Converted %d files.", Integer.valueOf(counter)), "Conversion Complete", JOptionPane.INFORMATION_MESSAGE);
+                List<String> problems = verifier.finish();
+                if (problems.isEmpty()) {
+                    JOptionPane.showMessageDialog(null, String.format("Converted %d files.", Integer.valueOf(counter)), "Conversion Complete", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(null, String.format("Converted %d files, but %d failed verification:\n%s", Integer.valueOf(counter), Integer.valueOf(problems.size()), String.join("\n", problems)), "Conversion Complete", JOptionPane.WARNING_MESSAGE);
+                }
             }
             System.exit(0);
         });
     }
 
-    private static int traverse(Path path, int counter) {
+    private static int traverse(Path path, int counter, RoundTripVerifier verifier) {
         try {
             String filename = path.getFileName().toString();
             if (!filename.startsWith(".")) {
                 if (Files.isDirectory(path)) {
                     try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
                         for (Path child : stream) {
-                            counter = traverse(child, counter);
+                            counter = traverse(child, counter, verifier);
                         }
                     }
                 } else {
@@ -86,6 +94,7 @@ public class GCSJsonUpdater {
                         if (isXMLFile(path)) {
                             GURPSCharacter gcs = new GURPSCharacter(path);
                             gcs.save(path);
+                            verifier.verify(gcs, path);
                             counter++;
                         }
                         break;
@@ -93,29 +102,30 @@ public class GCSJsonUpdater {
                         if (isXMLFile(path)) {
                             Template tmpl = new Template(path);
                             tmpl.save(path);
+                            verifier.verify(tmpl, path);
                             counter++;
                         }
                         break;
                     case "adq":
-                        counter = loadSave(new AdvantageList(), path, counter);
+                        counter = loadSave(new AdvantageList(), path, counter, verifier);
                         break;
                     case "adm":
-                        counter = loadSave(new AdvantageModifierList(), path, counter);
+                        counter = loadSave(new AdvantageModifierList(), path, counter, verifier);
                         break;
                     case "eqp":
-                        counter = loadSave(new EquipmentList(), path, counter);
+                        counter = loadSave(new EquipmentList(), path, counter, verifier);
                         break;
                     case "eqm":
-                        counter = loadSave(new EquipmentModifierList(), path, counter);
+                        counter = loadSave(new EquipmentModifierList(), path, counter, verifier);
                         break;
                     case "skl":
-                        counter = loadSave(new SkillList(), path, counter);
+                        counter = loadSave(new SkillList(), path, counter, verifier);
                         break;
                     case "spl":
-                        counter = loadSave(new SpellList(), path, counter);
+                        counter = loadSave(new SpellList(), path, counter, verifier);
                         break;
                     case "not":
-                        counter = loadSave(new NoteList(), path, counter);
+                        counter = loadSave(new NoteList(), path, counter, verifier);
                         break;
                     }
                 }
@@ -126,10 +136,11 @@ public class GCSJsonUpdater {
         return counter;
     }
 
-    private static int loadSave(DataFile data, Path path, int counter) throws IOException {
+    private static int loadSave(DataFile data, Path path, int counter, RoundTripVerifier verifier) throws IOException {
         if (isXMLFile(path)) {
             data.load(path);
             data.save(path);
+            verifier.verify(data, path);
             return counter + 1;
         }
         return counter;
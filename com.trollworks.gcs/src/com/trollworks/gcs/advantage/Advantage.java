@@ -31,10 +31,13 @@ import com.trollworks.gcs.weapon.RangedWeaponStats;
 import com.trollworks.gcs.weapon.WeaponStats;
 
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /** A GURPS Advantage. */
 public class Advantage extends ListRow implements Switchable {
@@ -127,6 +130,7 @@ public class Advantage extends ListRow implements Switchable {
     private              boolean                    mRoundCostDown;
     private              boolean                    mDisabled;
     private              String                     mUserDesc;
+    private              InheritedModifiers         mAllModifiers;
 
     /**
      * Creates a new advantage.
@@ -656,12 +660,75 @@ public class Advantage extends ListRow implements Switchable {
         return Collections.unmodifiableList(mModifiers);
     }
 
-    /** @return The modifiers including those inherited from parent row. */
+    /**
+     * @return The modifiers including those inherited from parent rows. This is a read-only view
+     *         that walks the current parent chain as it is traversed, so it never needs to be
+     *         rebuilt when modifiers or parentage change.
+     */
     public List<AdvantageModifier> getAllModifiers() {
-        List<AdvantageModifier> allModifiers = new ArrayList<>(mModifiers);
-        if (getParent() != null) {
-            allModifiers.addAll(((Advantage) getParent()).getAllModifiers());
+        if (mAllModifiers == null) {
+            mAllModifiers = new InheritedModifiers();
+        }
+        return mAllModifiers;
+    }
+
+    /** A view of an advantage's modifiers followed by those of each of its ancestors. */
+    private class InheritedModifiers extends AbstractList<AdvantageModifier> {
+        @Override
+        public AdvantageModifier get(int index) {
+            if (index >= 0) {
+                Row row = Advantage.this;
+                while (row instanceof Advantage) {
+                    List<AdvantageModifier> modifiers = ((Advantage) row).mModifiers;
+                    int                     size      = modifiers.size();
+                    if (index < size) {
+                        return modifiers.get(index);
+                    }
+                    index -= size;
+                    row = row.getParent();
+                }
+            }
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            Row row  = Advantage.this;
+            while (row instanceof Advantage) {
+                size += ((Advantage) row).mModifiers.size();
+                row = row.getParent();
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<AdvantageModifier> iterator() {
+            return new Iterator<>() {
+                private Advantage mCurrent = Advantage.this;
+                private int       mIndex;
+
+                @Override
+                public boolean hasNext() {
+                    while (mCurrent != null) {
+                        if (mIndex < mCurrent.mModifiers.size()) {
+                            return true;
+                        }
+                        Row parent = mCurrent.getParent();
+                        mCurrent = parent instanceof Advantage ? (Advantage) parent : null;
+                        mIndex = 0;
+                    }
+                    return false;
+                }
+
+                @Override
+                public AdvantageModifier next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return mCurrent.mModifiers.get(mIndex++);
+                }
+            };
         }
-        return Collections.unmodifiableList(allModifiers);
     }
 }
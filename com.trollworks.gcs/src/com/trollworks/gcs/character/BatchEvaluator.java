@@ -0,0 +1,235 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.character;
+
+import com.trollworks.gcs.skill.Skill;
+import com.trollworks.gcs.utility.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads many characters in parallel and streams a summary line of derived values for each one,
+ * either as CSV or as JSON lines.
+ */
+public class BatchEvaluator {
+    /** The output formats supported by a {@link BatchEvaluator}. */
+    public enum Format {
+        CSV, JSON_LINES
+    }
+
+    private static final String         KEY_PATH     = "path";
+    private static final String         KEY_LOAD_NS  = "load_ns";
+    private static final String         KEY_EVAL_NS  = "eval_ns";
+    private static final String         KEY_ERROR    = "error";
+    private static final String         SKILL_PREFIX = "skill:";
+    private              SummaryValue[] mValues;
+    private              String[]       mSkillNames;
+    private              Format         mFormat;
+    private              int            mThreads;
+
+    /**
+     * Creates a new {@link BatchEvaluator}.
+     *
+     * @param values     The derived values to report for each character, in output order.
+     * @param skillNames The skill names to report the best level for, after the derived values.
+     * @param format     The output format.
+     * @param threads    The number of worker threads to use. Values less than 1 will use the
+     *                   number of available processors.
+     */
+    public BatchEvaluator(List<SummaryValue> values, List<String> skillNames, Format format, int threads) {
+        mValues = values.toArray(new SummaryValue[0]);
+        mSkillNames = skillNames.toArray(new String[0]);
+        mFormat = format;
+        mThreads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+    }
+
+    /**
+     * Evaluates each of the specified character files, writing one line per file to the output.
+     * Lines are written in completion order, not in the order the paths were supplied. A file that
+     * fails to load produces a line with its error rather than aborting the batch.
+     *
+     * @param paths The character files to evaluate.
+     * @param out   The {@link Writer} to stream results to.
+     * @return The number of files successfully evaluated.
+     */
+    public int evaluate(List<Path> paths, Writer out) throws IOException {
+        if (mFormat == Format.CSV) {
+            out.write(createCSVHeader());
+        }
+        AtomicInteger   next      = new AtomicInteger();
+        AtomicInteger   succeeded = new AtomicInteger();
+        ExecutorService executor  = Executors.newFixedThreadPool(Math.min(mThreads, Math.max(paths.size(), 1)));
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < mThreads && i < paths.size(); i++) {
+                workers.add(executor.submit(() -> {
+                    // Each worker keeps its own parse and output buffers for its lifetime.
+                    char[]        readBuffer = new char[32768];
+                    StringBuilder line       = new StringBuilder(256);
+                    int           index;
+                    while ((index = next.getAndIncrement()) < paths.size()) {
+                        line.setLength(0);
+                        if (evaluate(paths.get(index), readBuffer, line)) {
+                            succeeded.incrementAndGet();
+                        }
+                        synchronized (out) {
+                            out.append(line);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> worker : workers) {
+                try {
+                    worker.get();
+                } catch (Exception exception) {
+                    Throwable cause = exception.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException(cause != null ? cause : exception);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        out.flush();
+        return succeeded.get();
+    }
+
+    private boolean evaluate(Path path, char[] readBuffer, StringBuilder line) {
+        long     start    = System.nanoTime();
+        long     loaded   = start;
+        boolean  isLoaded = false;
+        String[] results  = new String[mValues.length + mSkillNames.length];
+        try {
+            GURPSCharacter character = new GURPSCharacter(path, readBuffer);
+            loaded = System.nanoTime();
+            isLoaded = true;
+            for (int i = 0; i < mValues.length; i++) {
+                results[i] = mValues[i].extract(character);
+            }
+            for (int i = 0; i < mSkillNames.length; i++) {
+                Skill skill = character.getBestSkillNamed(mSkillNames[i], null, false, null);
+                results[mValues.length + i] = skill != null ? Integer.toString(skill.getLevel()) : "";
+            }
+        } catch (Exception exception) {
+            // A failure in either step is reported on this file's line, leaving the rest of the
+            // batch to carry on
+            long now = System.nanoTime();
+            if (isLoaded) {
+                appendError(line, path, loaded - start, now - loaded, exception);
+            } else {
+                appendError(line, path, now - start, -1, exception);
+            }
+            return false;
+        }
+        long evalNanos = System.nanoTime() - loaded;
+        long loadNanos = loaded - start;
+        if (mFormat == Format.CSV) {
+            appendCSV(line, path.toString());
+            line.append(',').append(loadNanos).append(',').append(evalNanos);
+            for (String result : results) {
+                line.append(',');
+                appendCSV(line, result);
+            }
+            line.append(',');
+        } else {
+            line.append('{').append(Json.quote(KEY_PATH)).append(':').append(Json.quote(path.toString()));
+            line.append(',').append(Json.quote(KEY_LOAD_NS)).append(':').append(loadNanos);
+            line.append(',').append(Json.quote(KEY_EVAL_NS)).append(':').append(evalNanos);
+            for (int i = 0; i < results.length; i++) {
+                line.append(',').append(Json.quote(getColumnKey(i))).append(':').append(Json.quote(results[i]));
+            }
+            line.append('}');
+        }
+        line.append('\n');
+        return true;
+    }
+
+    private void appendError(StringBuilder line, Path path, long loadNanos, long evalNanos, Exception exception) {
+        String msg = exception.getMessage();
+        if (msg == null) {
+            msg = exception.getClass().getSimpleName();
+        }
+        if (mFormat == Format.CSV) {
+            appendCSV(line, path.toString());
+            line.append(',').append(loadNanos).append(',').append(Math.max(evalNanos, 0));
+            for (int i = mValues.length + mSkillNames.length; i > 0; i--) {
+                line.append(',');
+            }
+            line.append(',');
+            appendCSV(line, msg);
+        } else {
+            line.append('{').append(Json.quote(KEY_PATH)).append(':').append(Json.quote(path.toString()));
+            line.append(',').append(Json.quote(KEY_LOAD_NS)).append(':').append(loadNanos);
+            if (evalNanos >= 0) {
+                // Only present when the failure happened after the character was loaded
+                line.append(',').append(Json.quote(KEY_EVAL_NS)).append(':').append(evalNanos);
+            }
+            line.append(',').append(Json.quote(KEY_ERROR)).append(':').append(Json.quote(msg)).append('}');
+        }
+        line.append('\n');
+    }
+
+    private String getColumnKey(int index) {
+        return index < mValues.length ? mValues[index].getKey() : SKILL_PREFIX + mSkillNames[index - mValues.length];
+    }
+
+    private String createCSVHeader() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(KEY_PATH).append(',').append(KEY_LOAD_NS).append(',').append(KEY_EVAL_NS);
+        int count = mValues.length + mSkillNames.length;
+        for (int i = 0; i < count; i++) {
+            buffer.append(',');
+            appendCSV(buffer, getColumnKey(i));
+        }
+        buffer.append(',').append(KEY_ERROR).append('\n');
+        return buffer.toString();
+    }
+
+    private static void appendCSV(StringBuilder buffer, String text) {
+        if (text == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        int     length      = text.length();
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            buffer.append(text);
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch == '"') {
+                buffer.append('"');
+            }
+            buffer.append(ch);
+        }
+        buffer.append('"');
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.character;
+
+import com.trollworks.gcs.utility.Fixed6;
+import com.trollworks.gcs.utility.units.WeightValue;
+
+/**
+ * An immutable capture of a {@link GURPSCharacter}'s derived values, taken at the end of a
+ * recalculation. A new instance is published each time the character recalculates, so readers on
+ * other threads may hold onto and query one without locking while edits continue.
+ */
+public final class CharacterSnapshot {
+    private final long        mGeneration;
+    private final int         mTotalPoints;
+    private final int         mAttributePoints;
+    private final int         mAdvantagePoints;
+    private final int         mDisadvantagePoints;
+    private final int         mQuirkPoints;
+    private final int         mSkillPoints;
+    private final int         mSpellPoints;
+    private final int         mRacePoints;
+    private final int         mStrength;
+    private final int         mDexterity;
+    private final int         mIntelligence;
+    private final int         mHealth;
+    private final int         mWill;
+    private final int         mPerception;
+    private final double      mBasicSpeed;
+    private final int         mBasicMove;
+    private final int         mHitPoints;
+    private final int         mCurrentHitPoints;
+    private final int         mFatiguePoints;
+    private final int         mCurrentFatiguePoints;
+    private final WeightValue mBasicLift;
+    private final WeightValue mWeightCarried;
+    private final WeightValue mWeightCarriedForSkills;
+    private final Fixed6      mWealthCarried;
+    private final Fixed6      mWealthNotCarried;
+    private final Encumbrance mEncumbrance;
+    private final Encumbrance mEncumbranceForSkills;
+    private final int[]       mDodge;
+    private final int[]       mMove;
+
+    CharacterSnapshot(GURPSCharacter character, long generation) {
+        mGeneration = generation;
+        mTotalPoints = character.getTotalPoints();
+        mAttributePoints = character.getAttributePoints();
+        mAdvantagePoints = character.getAdvantagePoints();
+        mDisadvantagePoints = character.getDisadvantagePoints();
+        mQuirkPoints = character.getQuirkPoints();
+        mSkillPoints = character.getSkillPoints();
+        mSpellPoints = character.getSpellPoints();
+        mRacePoints = character.getRacePoints();
+        mStrength = character.getStrength();
+        mDexterity = character.getDexterity();
+        mIntelligence = character.getIntelligence();
+        mHealth = character.getHealth();
+        mWill = character.getWillAdj();
+        mPerception = character.getPerAdj();
+        mBasicSpeed = character.getBasicSpeed();
+        mBasicMove = character.getBasicMove();
+        mHitPoints = character.getHitPointsAdj();
+        mCurrentHitPoints = character.getCurrentHitPoints();
+        mFatiguePoints = character.getFatiguePoints();
+        mCurrentFatiguePoints = character.getCurrentFatiguePoints();
+        mBasicLift = new WeightValue(character.getBasicLift());
+        mWeightCarried = new WeightValue(character.getWeightCarried(false));
+        mWeightCarriedForSkills = new WeightValue(character.getWeightCarried(true));
+        mWealthCarried = character.getWealthCarried();
+        mWealthNotCarried = character.getWealthNotCarried();
+        mEncumbrance = character.getEncumbranceLevel(false);
+        mEncumbranceForSkills = character.getEncumbranceLevel(true);
+        Encumbrance[] levels = Encumbrance.values();
+        mDodge = new int[levels.length];
+        mMove = new int[levels.length];
+        for (Encumbrance encumbrance : levels) {
+            mDodge[encumbrance.ordinal()] = character.getDodge(encumbrance);
+            mMove[encumbrance.ordinal()] = character.getMove(encumbrance);
+        }
+    }
+
+    /**
+     * @return The recalculation count this snapshot was taken at. Later snapshots of the same
+     *         character always have a larger value.
+     */
+    public long getGeneration() {
+        return mGeneration;
+    }
+
+    /** @return The total number of points the character has. */
+    public int getTotalPoints() {
+        return mTotalPoints;
+    }
+
+    /** @return The total number of points spent. */
+    public int getSpentPoints() {
+        return mAttributePoints + mAdvantagePoints + mDisadvantagePoints + mQuirkPoints + mSkillPoints + mSpellPoints + mRacePoints;
+    }
+
+    /** @return The number of unspent points. */
+    public int getUnspentPoints() {
+        return mTotalPoints - getSpentPoints();
+    }
+
+    /** @return The number of points spent on basic attributes. */
+    public int getAttributePoints() {
+        return mAttributePoints;
+    }
+
+    /** @return The number of points spent on advantages. */
+    public int getAdvantagePoints() {
+        return mAdvantagePoints;
+    }
+
+    /** @return The number of points spent on disadvantages. */
+    public int getDisadvantagePoints() {
+        return mDisadvantagePoints;
+    }
+
+    /** @return The number of points spent on quirks. */
+    public int getQuirkPoints() {
+        return mQuirkPoints;
+    }
+
+    /** @return The number of points spent on skills. */
+    public int getSkillPoints() {
+        return mSkillPoints;
+    }
+
+    /** @return The number of points spent on spells. */
+    public int getSpellPoints() {
+        return mSpellPoints;
+    }
+
+    /** @return The number of points spent on a racial package. */
+    public int getRacePoints() {
+        return mRacePoints;
+    }
+
+    /** @return The strength (ST). */
+    public int getStrength() {
+        return mStrength;
+    }
+
+    /** @return The dexterity (DX). */
+    public int getDexterity() {
+        return mDexterity;
+    }
+
+    /** @return The intelligence (IQ). */
+    public int getIntelligence() {
+        return mIntelligence;
+    }
+
+    /** @return The health (HT). */
+    public int getHealth() {
+        return mHealth;
+    }
+
+    /** @return The will. */
+    public int getWill() {
+        return mWill;
+    }
+
+    /** @return The perception (Per). */
+    public int getPerception() {
+        return mPerception;
+    }
+
+    /** @return The basic speed. */
+    public double getBasicSpeed() {
+        return mBasicSpeed;
+    }
+
+    /** @return The basic move. */
+    public int getBasicMove() {
+        return mBasicMove;
+    }
+
+    /** @return The hit points (HP). */
+    public int getHitPoints() {
+        return mHitPoints;
+    }
+
+    /** @return The current hit points. */
+    public int getCurrentHitPoints() {
+        return mCurrentHitPoints;
+    }
+
+    /** @return The fatigue points (FP). */
+    public int getFatiguePoints() {
+        return mFatiguePoints;
+    }
+
+    /** @return The current fatigue points. */
+    public int getCurrentFatiguePoints() {
+        return mCurrentFatiguePoints;
+    }
+
+    /** @return Basic lift. */
+    public WeightValue getBasicLift() {
+        return new WeightValue(mBasicLift);
+    }
+
+    /**
+     * @param forSkills Whether to return the weight used for skill encumbrance.
+     * @return The weight being carried.
+     */
+    public WeightValue getWeightCarried(boolean forSkills) {
+        return new WeightValue(forSkills ? mWeightCarriedForSkills : mWeightCarried);
+    }
+
+    /** @return The wealth being carried. */
+    public Fixed6 getWealthCarried() {
+        return mWealthCarried;
+    }
+
+    /** @return The wealth not being carried. */
+    public Fixed6 getWealthNotCarried() {
+        return mWealthNotCarried;
+    }
+
+    /**
+     * @param forSkills Whether to return the encumbrance level used for skills.
+     * @return The encumbrance level.
+     */
+    public Encumbrance getEncumbranceLevel(boolean forSkills) {
+        return forSkills ? mEncumbranceForSkills : mEncumbrance;
+    }
+
+    /**
+     * @param encumbrance The encumbrance level.
+     * @return The dodge for the specified encumbrance level.
+     */
+    public int getDodge(Encumbrance encumbrance) {
+        return mDodge[encumbrance.ordinal()];
+    }
+
+    /**
+     * @param encumbrance The encumbrance level.
+     * @return The ground move for the specified encumbrance level.
+     */
+    public int getMove(Encumbrance encumbrance) {
+        return mMove[encumbrance.ordinal()];
+    }
+}
@@ -46,6 +46,7 @@ import com.trollworks.gcs.utility.FilteredIterator;
 import com.trollworks.gcs.utility.Fixed6;
 import com.trollworks.gcs.utility.SaveType;
 import com.trollworks.gcs.utility.json.JsonWriter;
+import com.trollworks.gcs.utility.text.DateTimeCodec;
 import com.trollworks.gcs.utility.text.Numbers;
 import com.trollworks.gcs.utility.units.WeightUnits;
 import com.trollworks.gcs.utility.units.WeightValue;
@@ -54,9 +55,7 @@ import com.trollworks.gcs.utility.xml.XMLReader;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.text.DateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -171,6 +170,8 @@ public class GURPSCharacter extends DataFile {
     private              boolean                             mNeedSkillPointCalculation;
     private              boolean                             mNeedSpellPointCalculation;
     private              boolean                             mNeedEquipmentCalculation;
+    private              long                                mSnapshotGeneration;
+    private volatile     CharacterSnapshot                   mSnapshot;
 
     /**
      * Creates a new character from the specified file.
@@ -183,6 +184,18 @@ public class GURPSCharacter extends DataFile {
         load(path);
     }
 
+    /**
+     * Creates a new character from the specified file.
+     *
+     * @param path   The path to load the data from.
+     * @param buffer The read buffer to use while parsing. May be reused for subsequent loads.
+     * @throws IOException if the data cannot be read or the file doesn't contain a valid character
+     *                     sheet.
+     */
+    public GURPSCharacter(Path path, char[] buffer) throws IOException {
+        load(path, buffer);
+    }
+
     private void characterInitialize() {
         mSettings = new Settings();
         mFeatureMap = new HashMap<>();
@@ -324,6 +337,7 @@ public class GURPSCharacter extends DataFile {
             }
         }
         mModifiedOn = modifiedOn;
+        publishSnapshot();
     }
 
     private void loadAdvantageList(XMLReader reader, LoadState state) throws IOException {
@@ -382,6 +396,9 @@ public class GURPSCharacter extends DataFile {
                     Equipment equipment = new Equipment(this, reader, state);
                     if (state.mDataFileVersion < SEPARATED_EQUIPMENT_VERSION && equipmentList == mEquipment && !state.mUncarriedEquipment.isEmpty()) {
                         if (addToEquipment(state.mUncarriedEquipment, equipment)) {
+                            // Moving uncarried rows out may have emptied containers, so their
+                            // extended values need to be rolled up again.
+                            equipment.updateExtendedTree();
                             equipmentList.addRow(equipment, true);
                         }
                     } else {
@@ -429,16 +446,32 @@ public class GURPSCharacter extends DataFile {
         calculateAdvantagePoints();
         calculateSkillPoints();
         calculateSpellPoints();
-        calculateWeightAndWealthCarried(false);
-        calculateWealthNotCarried(false);
+        updateWeightAndWealthCarried();
+        updateWealthNotCarried();
+    }
+
+    /**
+     * Replaces the current {@link CharacterSnapshot} with one reflecting the current derived
+     * values. Must be called by the single writer after it finishes a recalculation.
+     */
+    private void publishSnapshot() {
+        mSnapshot = new CharacterSnapshot(this, ++mSnapshotGeneration);
+    }
+
+    /**
+     * @return The {@link CharacterSnapshot} taken at the end of the most recent recalculation. Safe
+     *         to call from any thread.
+     */
+    public CharacterSnapshot getSnapshot() {
+        return mSnapshot;
     }
 
     @Override
     protected void saveSelf(JsonWriter w, SaveType saveType) throws IOException {
         w.key(Settings.TAG_ROOT);
         mSettings.save(w);
-        w.keyValue(TAG_CREATED_DATE, DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT).format(new Date(mCreatedOn)));
-        w.keyValue(TAG_MODIFIED_DATE, DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT).format(new Date(mModifiedOn)));
+        w.keyValue(TAG_CREATED_DATE, DateTimeCodec.format(mCreatedOn));
+        w.keyValue(TAG_MODIFIED_DATE, DateTimeCodec.format(mModifiedOn));
         w.key(Profile.TAG_ROOT);
         mProfile.save(w);
         w.keyValueNot(KEY_HP_ADJ, mHitPointsAdj, 0);
@@ -904,12 +937,17 @@ public class GURPSCharacter extends DataFile {
      *               the previous values.
      */
     public void calculateWeightAndWealthCarried(boolean notify) {
+        updateWeightAndWealthCarried();
+        publishSnapshot();
+    }
+
+    private void updateWeightAndWealthCarried() {
         WeightValue savedWeight          = new WeightValue(mCachedWeightCarried);
         WeightValue savedWeightForSkills = new WeightValue(mCachedWeightCarriedForSkills);
         Fixed6      savedWealth          = mCachedWealthCarried;
         mCachedWeightCarried = new WeightValue(Fixed6.ZERO, defaultWeightUnits());
         mCachedWeightCarriedForSkills = new WeightValue(Fixed6.ZERO, defaultWeightUnits());
-        mCachedWealthCarried = Fixed6.ZERO;
+        Fixed6.Accumulator wealth = new Fixed6.Accumulator();
         for (Row one : mEquipment.getTopLevelRows()) {
             Equipment   equipment = (Equipment) one;
             WeightValue weight    = new WeightValue(equipment.getExtendedWeight(false));
@@ -917,7 +955,7 @@ public class GURPSCharacter extends DataFile {
                 weight = defaultWeightUnits().isMetric() ? convertToGurpsMetric(weight) : convertFromGurpsMetric(weight);
             }
             mCachedWeightCarried.add(weight);
-            mCachedWealthCarried = mCachedWealthCarried.add(equipment.getExtendedValue());
+            wealth.add(equipment.getExtendedValue());
 
             weight = new WeightValue(equipment.getExtendedWeight(true));
             if (useSimpleMetricConversions()) {
@@ -925,6 +963,7 @@ public class GURPSCharacter extends DataFile {
             }
             mCachedWeightCarriedForSkills.add(weight);
         }
+        mCachedWealthCarried = wealth.toFixed6();
     }
 
     /**
@@ -934,11 +973,17 @@ public class GURPSCharacter extends DataFile {
      *               the previous values.
      */
     public void calculateWealthNotCarried(boolean notify) {
+        updateWealthNotCarried();
+        publishSnapshot();
+    }
+
+    private void updateWealthNotCarried() {
         Fixed6 savedWealth = mCachedWealthNotCarried;
-        mCachedWealthNotCarried = Fixed6.ZERO;
+        Fixed6.Accumulator wealth = new Fixed6.Accumulator();
         for (Row one : mOtherEquipment.getTopLevelRows()) {
-            mCachedWealthNotCarried = mCachedWealthNotCarried.add(((Equipment) one).getExtendedValue());
+            wealth.add(((Equipment) one).getExtendedValue());
         }
+        mCachedWealthNotCarried = wealth.toFixed6();
     }
 
     /** @return The dexterity (DX). */
@@ -1010,6 +1055,7 @@ public class GURPSCharacter extends DataFile {
         int current = getUnspentPoints();
         if (current != unspent) {
             mTotalPoints = unspent + getSpentPoints();
+            publishSnapshot();
         }
     }
 
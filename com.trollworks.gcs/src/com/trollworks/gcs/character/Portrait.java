@@ -0,0 +1,72 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.character;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The encoded image data of a character portrait. Instances are immutable, so a single one may be
+ * shared by any number of characters, as is done by a {@link PortraitStore}.
+ */
+public final class Portrait {
+    private static final char[]     HEX = "0123456789abcdef".toCharArray();
+    private              ByteBuffer mData;
+    private              String     mHash;
+
+    /** @param data The encoded image data. The array must not be modified afterwards. */
+    public Portrait(byte[] data) {
+        this(ByteBuffer.wrap(data), null);
+    }
+
+    Portrait(ByteBuffer data, String hash) {
+        mData = data.asReadOnlyBuffer();
+        mHash = hash;
+    }
+
+    /** @return A read-only view of the encoded image data. */
+    public ByteBuffer getData() {
+        return mData.duplicate();
+    }
+
+    /** @return The number of bytes of encoded image data. */
+    public int size() {
+        return mData.remaining();
+    }
+
+    /** @return The SHA-256 hash of the encoded image data, as lower-case hexadecimal. */
+    public String getHash() {
+        if (mHash == null) {
+            mHash = hash(mData.duplicate());
+        }
+        return mHash;
+    }
+
+    static String hash(ByteBuffer data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+        digest.update(data);
+        byte[]        bytes  = digest.digest();
+        StringBuilder buffer = new StringBuilder(bytes.length * 2);
+        for (byte one : bytes) {
+            buffer.append(HEX[(one >> 4) & 0xF]);
+            buffer.append(HEX[one & 0xF]);
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.character;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A content-addressed store of portraits, so that characters sharing the same image also share a
+ * single copy of its data. When a directory is supplied, each distinct portrait is written there
+ * once, named by its hash, and memory-mapped rather than kept on the heap.
+ * <p>
+ * Characters only use a store while one has been installed with {@link #setShared(PortraitStore)}.
+ */
+public class PortraitStore {
+    private static volatile PortraitStore                   SHARED;
+    private                 ConcurrentMap<String, Portrait> mPortraits = new ConcurrentHashMap<>();
+    private                 Path                            mDirectory;
+
+    /** Creates a new {@link PortraitStore} that keeps its portraits on the heap. */
+    public PortraitStore() {
+    }
+
+    /**
+     * Creates a new {@link PortraitStore} that keeps its portraits in memory-mapped files.
+     *
+     * @param directory The directory to store the portraits in. It will be created if needed and
+     *                  may be shared with other stores, including those in other processes.
+     */
+    public PortraitStore(Path directory) throws IOException {
+        mDirectory = Files.createDirectories(directory);
+    }
+
+    /** @return The store characters should use when loading, or {@code null}. */
+    public static PortraitStore getShared() {
+        return SHARED;
+    }
+
+    /** @param store The store characters should use when loading. Pass {@code null} for none. */
+    public static void setShared(PortraitStore store) {
+        SHARED = store;
+    }
+
+    /**
+     * @param data The encoded image data. The array must not be modified afterwards.
+     * @return The stored {@link Portrait} with the same content.
+     */
+    public Portrait intern(byte[] data) throws IOException {
+        String   hash     = Portrait.hash(ByteBuffer.wrap(data));
+        Portrait portrait = mPortraits.get(hash);
+        if (portrait == null) {
+            portrait = new Portrait(mDirectory != null ? map(hash, data) : ByteBuffer.wrap(data), hash);
+            Portrait existing = mPortraits.putIfAbsent(hash, portrait);
+            if (existing != null) {
+                portrait = existing;
+            }
+        }
+        return portrait;
+    }
+
+    /**
+     * @param hash The hash of the portrait to retrieve.
+     * @return The stored {@link Portrait} with the hash, or {@code null}.
+     */
+    public Portrait get(String hash) {
+        return mPortraits.get(hash);
+    }
+
+    /** @return The number of distinct portraits held. */
+    public int size() {
+        return mPortraits.size();
+    }
+
+    private ByteBuffer map(String hash, byte[] data) throws IOException {
+        Path path = mDirectory.resolve(hash);
+        if (!Files.exists(path) || Files.size(path) != data.length) {
+            // Write to a temporary file first, so that no one else ever maps a partial image
+            Path tmp = Files.createTempFile(mDirectory, hash, ".tmp");
+            try {
+                Files.write(tmp, data);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
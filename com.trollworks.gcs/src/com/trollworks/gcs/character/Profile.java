@@ -13,6 +13,7 @@ package com.trollworks.gcs.character;
 
 import com.trollworks.gcs.feature.BonusAttributeType;
 import com.trollworks.gcs.notes.Note;
+import com.trollworks.gcs.utility.Base64DecodingWriter;
 import com.trollworks.gcs.utility.Fixed6;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Text;
@@ -23,7 +24,6 @@ import com.trollworks.gcs.utility.xml.XMLReader;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -92,7 +92,7 @@ public class Profile {
     public static final  Set<String>    VALID_HIT_LOCATION_TABLES = new HashSet<>(Arrays.asList("humanoid", "quadruped", "winged_quadruped", "hexapod", "winged_hexapod", "centaur", "avian", "vermiform", "winged_vermiform", "snakemen", "octopod", "squid", "cancroid", "scorpion", "ichthyoid", "arachnoid"));
     private              GURPSCharacter mCharacter;
     private              boolean        mCustomPortrait;
-    private              byte[]         mPortrait;
+    private              Portrait       mPortrait;
     private              String         mName;
     private              String         mTitle;
     private              int            mAge;
@@ -187,7 +187,11 @@ public class Profile {
         } else if (TAG_RELIGION.equals(tag)) {
             mReligion = reader.readText();
         } else if (TAG_PORTRAIT.equals(tag)) {
-            mPortrait = Base64.getMimeDecoder().decode(reader.readText());
+            Base64DecodingWriter decoder = new Base64DecodingWriter();
+            reader.readText(decoder);
+            byte[]        data  = decoder.toByteArray();
+            PortraitStore store = PortraitStore.getShared();
+            mPortrait = store != null ? store.intern(data) : new Portrait(data);
             mCustomPortrait = true;
         } else {
             return false;
@@ -218,7 +222,7 @@ public class Profile {
         w.keyValueNot(TAG_TECH_LEVEL, mTechLevel, "");
         w.keyValueNot(TAG_RELIGION, mReligion, "");
         if (mCustomPortrait && mPortrait != null) {
-            w.keyValue(TAG_PORTRAIT, Base64.getEncoder().encodeToString(mPortrait));
+            w.keyValue(TAG_PORTRAIT, mPortrait.getData());
         }
         w.endMap();
     }
@@ -227,6 +231,11 @@ public class Profile {
         setSizeModifierBonus(mCharacter.getIntegerBonusFor(GURPSCharacter.ATTRIBUTES_PREFIX + BonusAttributeType.SM.name()));
     }
 
+    /** @return The custom portrait, or {@code null}. */
+    public Portrait getPortrait() {
+        return mCustomPortrait ? mPortrait : null;
+    }
+
     /** @return The name. */
     public String getName() {
         return mName;
@@ -0,0 +1,119 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.character;
+
+/** The derived character values that a {@link BatchEvaluator} can report. */
+public enum SummaryValue {
+    NAME("name") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return character.getProfile().getName();
+        }
+    }, TOTAL_POINTS("total_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getTotalPoints());
+        }
+    }, SPENT_POINTS("spent_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getSpentPoints());
+        }
+    }, UNSPENT_POINTS("unspent_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getUnspentPoints());
+        }
+    }, ATTRIBUTE_POINTS("attribute_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getAttributePoints());
+        }
+    }, ADVANTAGE_POINTS("advantage_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getAdvantagePoints());
+        }
+    }, DISADVANTAGE_POINTS("disadvantage_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getDisadvantagePoints());
+        }
+    }, QUIRK_POINTS("quirk_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getQuirkPoints());
+        }
+    }, SKILL_POINTS("skill_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getSkillPoints());
+        }
+    }, SPELL_POINTS("spell_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getSpellPoints());
+        }
+    }, RACE_POINTS("race_points") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getRacePoints());
+        }
+    }, ENCUMBRANCE("encumbrance") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return character.getEncumbranceLevel(false).toString();
+        }
+    }, DODGE("dodge") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getDodge(character.getEncumbranceLevel(false)));
+        }
+    }, MOVE("move") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Integer.toString(character.getMove(character.getEncumbranceLevel(false)));
+        }
+    }, BASIC_SPEED("basic_speed") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return Double.toString(character.getBasicSpeed());
+        }
+    }, WEIGHT_CARRIED("weight_carried") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return character.getWeightCarried(false).toString(false);
+        }
+    }, WEALTH_CARRIED("wealth_carried") {
+        @Override
+        public String extract(GURPSCharacter character) {
+            return character.getWealthCarried().toString();
+        }
+    };
+
+    private String mKey;
+
+    SummaryValue(String key) {
+        mKey = key;
+    }
+
+    /** @return The key used for this value in the output. */
+    public String getKey() {
+        return mKey;
+    }
+
+    /**
+     * @param character The character to extract the value from.
+     * @return The value, as text.
+     */
+    public abstract String extract(GURPSCharacter character);
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.criteria;
+
+import java.util.Locale;
+
+/**
+ * A qualifier prepared for repeated case-insensitive comparisons. The results are always the same
+ * as comparing against {@code data.toLowerCase()}, but when both the qualifier and the data are
+ * plain ASCII, the comparison is made in place without lower-casing the data first.
+ */
+final class FoldedQualifier {
+    private String  mQualifier;
+    private String  mFolded;
+    private Locale  mLocale;
+    private boolean mASCII;
+
+    /** @param qualifier The qualifier. */
+    FoldedQualifier(String qualifier) {
+        mQualifier = qualifier;
+        mLocale = Locale.getDefault();
+        mFolded = qualifier.toLowerCase(mLocale);
+        // Turkish and Azeri lower-case 'I' to a dotless 'ı', so ASCII isn't safe to fold by hand
+        String language = mLocale.getLanguage();
+        mASCII = isASCII(mFolded) && !"tr".equals(language) && !"az".equals(language);
+    }
+
+    /** @return The original qualifier. */
+    String getQualifier() {
+        return mQualifier;
+    }
+
+    /** @return Whether this was prepared for the current default {@link Locale}. */
+    boolean isCurrent() {
+        return mLocale == Locale.getDefault();
+    }
+
+    /**
+     * @param data The data to check.
+     * @return Whether the data is equal to the qualifier, ignoring case.
+     */
+    boolean isEqualTo(String data) {
+        return data.equalsIgnoreCase(mQualifier);
+    }
+
+    /**
+     * @param data The data to check.
+     * @return Whether the data contains the qualifier, ignoring case.
+     */
+    boolean isContainedIn(String data) {
+        if (mASCII && isASCII(data)) {
+            int last = data.length() - mFolded.length();
+            for (int i = 0; i <= last; i++) {
+                if (regionMatches(data, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return data.toLowerCase().contains(mFolded);
+    }
+
+    /**
+     * @param data The data to check.
+     * @return Whether the data starts with the qualifier, ignoring case.
+     */
+    boolean isPrefixOf(String data) {
+        if (mASCII && isASCII(data)) {
+            return data.length() >= mFolded.length() && regionMatches(data, 0);
+        }
+        return data.toLowerCase().startsWith(mFolded);
+    }
+
+    /**
+     * @param data The data to check.
+     * @return Whether the data ends with the qualifier, ignoring case.
+     */
+    boolean isSuffixOf(String data) {
+        if (mASCII && isASCII(data)) {
+            int start = data.length() - mFolded.length();
+            return start >= 0 && regionMatches(data, start);
+        }
+        return data.toLowerCase().endsWith(mFolded);
+    }
+
+    private boolean regionMatches(String data, int start) {
+        int length = mFolded.length();
+        for (int i = 0; i < length; i++) {
+            char ch = data.charAt(start + i);
+            if (ch >= 'A' && ch <= 'Z') {
+                ch += 'a' - 'A';
+            }
+            if (ch != mFolded.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isASCII(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
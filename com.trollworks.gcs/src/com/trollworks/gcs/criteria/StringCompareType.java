@@ -21,7 +21,7 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
+        boolean matches(FoldedQualifier qualifier, String data) {
             return true;
         }
     },
@@ -33,8 +33,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return data.equalsIgnoreCase(qualifier);
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return qualifier.isEqualTo(data);
         }
     },
     /** The comparison for "is not". */
@@ -45,8 +45,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return !data.equalsIgnoreCase(qualifier);
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return !qualifier.isEqualTo(data);
         }
     },
     /** The comparison for "contains". */
@@ -57,8 +57,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return data.toLowerCase().contains(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return qualifier.isContainedIn(data);
         }
     },
     /** The comparison for "does not contain". */
@@ -69,8 +69,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return !data.toLowerCase().contains(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return !qualifier.isContainedIn(data);
         }
     },
     /** The comparison for "starts with". */
@@ -81,8 +81,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return data.toLowerCase().startsWith(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return qualifier.isPrefixOf(data);
         }
     },
     /** The comparison for "does not start with". */
@@ -93,8 +93,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return !data.toLowerCase().startsWith(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return !qualifier.isPrefixOf(data);
         }
     },
     /** The comparison for "ends with". */
@@ -105,8 +105,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return data.toLowerCase().endsWith(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return qualifier.isSuffixOf(data);
         }
     },
     /** The comparison for "does not end with". */
@@ -117,8 +117,8 @@ public enum StringCompareType {
         }
 
         @Override
-        public boolean matches(String qualifier, String data) {
-            return !data.toLowerCase().endsWith(qualifier.toLowerCase());
+        boolean matches(FoldedQualifier qualifier, String data) {
+            return !qualifier.isSuffixOf(data);
         }
     };
 
@@ -137,5 +137,17 @@ public enum StringCompareType {
      * @param data      The data to check.
      * @return Whether the data matches the criteria or not.
      */
-    public abstract boolean matches(String qualifier, String data);
+    public boolean matches(String qualifier, String data) {
+        return matches(new FoldedQualifier(qualifier), data);
+    }
+
+    /**
+     * Performs a comparison against a qualifier that has already been prepared, which is cheaper
+     * when the same qualifier is used repeatedly.
+     *
+     * @param qualifier The qualifier to use in conjunction with this {@link StringCompareType}.
+     * @param data      The data to check.
+     * @return Whether the data matches the criteria or not.
+     */
+    abstract boolean matches(FoldedQualifier qualifier, String data);
 }
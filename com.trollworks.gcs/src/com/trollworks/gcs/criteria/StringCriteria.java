@@ -21,6 +21,7 @@ import java.io.IOException;
 public class StringCriteria extends Criteria {
     private StringCompareType mType;
     private String            mQualifier;
+    private FoldedQualifier   mFoldedQualifier;
 
     /**
      * Creates a new string comparison.
@@ -41,6 +42,7 @@ public class StringCriteria extends Criteria {
     public StringCriteria(StringCriteria other) {
         mType = other.mType;
         mQualifier = other.mQualifier;
+        mFoldedQualifier = other.mFoldedQualifier;
     }
 
     @Override
@@ -99,6 +101,7 @@ public class StringCriteria extends Criteria {
     /** @param qualifier The qualifier to match against. */
     public void setQualifier(String qualifier) {
         mQualifier = qualifier != null ? qualifier : "";
+        mFoldedQualifier = null;
     }
 
     /**
@@ -106,7 +109,15 @@ public class StringCriteria extends Criteria {
      * @return Whether the data matches this criteria.
      */
     public boolean matches(String data) {
-        return mType.matches(mQualifier, data);
+        if (mType == StringCompareType.ANY) {
+            return true;
+        }
+        FoldedQualifier qualifier = mFoldedQualifier;
+        if (qualifier == null || !qualifier.isCurrent()) {
+            qualifier = new FoldedQualifier(mQualifier);
+            mFoldedQualifier = qualifier;
+        }
+        return mType.matches(qualifier, data);
     }
 
     @Override
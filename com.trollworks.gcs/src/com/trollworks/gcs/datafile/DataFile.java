@@ -15,6 +15,7 @@ import com.trollworks.gcs.utility.SafeFileUpdater;
 import com.trollworks.gcs.utility.SaveType;
 import com.trollworks.gcs.utility.VersionException;
 import com.trollworks.gcs.utility.json.JsonWriter;
+import com.trollworks.gcs.utility.text.StringPool;
 import com.trollworks.gcs.utility.units.WeightUnits;
 import com.trollworks.gcs.utility.xml.XMLNodeType;
 import com.trollworks.gcs.utility.xml.XMLReader;
@@ -40,6 +41,15 @@ public abstract class DataFile {
 
     /** @param path The path to load. */
     public void load(Path path) throws IOException {
+        load(path, new char[32768]);
+    }
+
+    /**
+     * @param path       The path to load.
+     * @param readBuffer The buffer the {@link XMLReader} should read into. Callers that load many
+     *                   files in succession may pass the same buffer each time.
+     */
+    public void load(Path path, char[] readBuffer) throws IOException {
         setPath(path);
         try (BufferedReader fileReader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
             fileReader.mark(20);
@@ -51,7 +61,9 @@ public abstract class DataFile {
             fileReader.reset();
             if (n == 5 && buffer[0] == '<' && buffer[1] == '?' && buffer[2] == 'x' && buffer[3] == 'm' && buffer[4] == 'l') {
                 // Load xml format from version 4.18 and earlier
-                try (XMLReader reader = new XMLReader(fileReader)) {
+                try (XMLReader reader = new XMLReader(fileReader, readBuffer)) {
+                    // Library files repeat the same short values many times over
+                    reader.setStringPool(new StringPool());
                     XMLNodeType type  = reader.next();
                     boolean     found = false;
                     while (type != XMLNodeType.END_DOCUMENT) {
@@ -11,6 +11,7 @@
 
 package com.trollworks.gcs.datafile;
 
+import com.trollworks.gcs.ui.widget.outline.CategorySet;
 import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.ui.widget.outline.OutlineModel;
 import com.trollworks.gcs.ui.widget.outline.Row;
@@ -19,14 +20,17 @@ import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.xml.XMLReader;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 /** A list of rows. */
 public abstract class ListFile extends DataFile {
-    private static final String       KEY_ROWS = "rows";
-    private              OutlineModel mModel   = new OutlineModel();
+    private static final String       KEY_ROWS                     = "rows";
+    private              OutlineModel mModel                       = new OutlineModel();
+    private              CategorySet  mCategories                  = CategorySet.EMPTY;
+    private              boolean      mCategoriesDirty             = true;
+    private              int          mCategoriesModificationCount;
 
     @Override
     protected final void loadSelf(XMLReader reader, LoadState state) throws IOException {
@@ -69,13 +73,24 @@ public abstract class ListFile extends DataFile {
         return mModel.getRowCount() == 0;
     }
 
-    /** @return The set of categories that exist in this {@link ListFile}. */
+    /**
+     * The result is cached until the rows of the outline model are added or removed, or one of
+     * the rows associated with this {@link ListFile} calls {@link #invalidateCategories()}.
+     *
+     * @return The set of categories that exist in this {@link ListFile}.
+     */
     public Set<String> getCategories() {
-        Set<String> set = new TreeSet<>();
-        for (Row row : getTopLevelRows()) {
-            processRowForCategories(row, set);
+        int modificationCount = mModel.getModificationCount();
+        if (mCategoriesDirty || mCategoriesModificationCount != modificationCount) {
+            Set<String> set = new HashSet<>();
+            for (Row row : getTopLevelRows()) {
+                processRowForCategories(row, set);
+            }
+            mCategories = CategorySet.of(set);
+            mCategoriesDirty = false;
+            mCategoriesModificationCount = modificationCount;
         }
-        return set;
+        return mCategories;
     }
 
     private void processRowForCategories(Row row, Set<String> set) {
@@ -88,4 +103,12 @@ public abstract class ListFile extends DataFile {
             }
         }
     }
+
+    /**
+     * Called by the rows associated with this {@link ListFile} whenever their categories or
+     * children change, so that {@link #getCategories()} will gather the categories again.
+     */
+    public void invalidateCategories() {
+        mCategoriesDirty = true;
+    }
 }
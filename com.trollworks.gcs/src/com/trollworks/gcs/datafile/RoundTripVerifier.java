@@ -0,0 +1,259 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.datafile;
+
+import com.trollworks.gcs.advantage.Advantage;
+import com.trollworks.gcs.character.GURPSCharacter;
+import com.trollworks.gcs.equipment.Equipment;
+import com.trollworks.gcs.skill.Skill;
+import com.trollworks.gcs.skill.SkillDefault;
+import com.trollworks.gcs.skill.Technique;
+import com.trollworks.gcs.spell.Spell;
+import com.trollworks.gcs.template.Template;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
+import com.trollworks.gcs.ui.widget.outline.Row;
+import com.trollworks.gcs.utility.json.Json;
+import com.trollworks.gcs.utility.json.JsonArray;
+import com.trollworks.gcs.utility.json.JsonMap;
+import com.trollworks.gcs.weapon.WeaponStats;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads files back after they have been written by {@link DataFile#save(Path)} and compares them
+ * against the model that was saved, so that a file which can't be loaded again is reported at
+ * conversion time rather than when it is next opened.
+ * <p>
+ * The rows of each file are checked for type and structure, and any weapons and skill defaults
+ * they hold are loaded from the JSON and compared with the originals. The shape of the model is
+ * captured when a file is queued, while the reading and comparing happens on background threads.
+ */
+public class RoundTripVerifier {
+    private static final String               KEY_ROWS     = "rows";
+    private static final String               KEY_CHILDREN = "children";
+    private static final String               KEY_WEAPONS  = "weapons";
+    private static final String               KEY_DEFAULTS = "defaults";
+    private static final String               KEY_DEFAULT  = "default";
+    private              ExecutorService      mExecutor;
+    private              List<Future<String>> mPending     = new ArrayList<>();
+
+    /**
+     * Creates a new {@link RoundTripVerifier}.
+     *
+     * @param threads The number of worker threads to use. Values less than 1 will use the number
+     *                of available processors.
+     */
+    public RoundTripVerifier(int threads) {
+        mExecutor = Executors.newFixedThreadPool(threads < 1 ? Runtime.getRuntime().availableProcessors() : threads, (runnable) -> {
+            Thread thread = new Thread(runnable, "Round-Trip Verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a file for verification. The rows of the file are referenced until the verification
+     * completes, so they should not be modified before then.
+     *
+     * @param file The data file that was saved.
+     * @param path The path it was saved to.
+     */
+    public void verify(DataFile file, Path path) {
+        FileShape shape = new FileShape(file);
+        mPending.add(mExecutor.submit(() -> shape.check(path)));
+    }
+
+    /**
+     * Waits for all queued verifications to complete and shuts down the worker threads.
+     *
+     * @return A description of each file that failed verification.
+     */
+    public List<String> finish() {
+        List<String> problems = new ArrayList<>();
+        try {
+            for (Future<String> future : mPending) {
+                String problem;
+                try {
+                    problem = future.get();
+                } catch (Exception exception) {
+                    Throwable cause = exception.getCause();
+                    problem = String.valueOf(cause != null ? cause : exception);
+                }
+                if (problem != null) {
+                    problems.add(problem);
+                }
+            }
+        } finally {
+            mPending.clear();
+            mExecutor.shutdownNow();
+        }
+        return problems;
+    }
+
+    private static List<RowShape> captureRows(List<Row> rows) {
+        List<RowShape> list = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row instanceof ListRow) {
+                list.add(new RowShape((ListRow) row));
+            }
+        }
+        return list;
+    }
+
+    private static String checkRows(String where, JsonArray a, List<RowShape> rows) {
+        int count = a.size();
+        if (count != rows.size()) {
+            return where + ": expected " + rows.size() + " rows, found " + count;
+        }
+        for (int i = 0; i < count; i++) {
+            String problem = rows.get(i).check(where + "[" + i + "]", a.getMap(i));
+            if (problem != null) {
+                return problem;
+            }
+        }
+        return null;
+    }
+
+    private static class FileShape {
+        private String                      mType;
+        private String                      mID;
+        private Map<String, List<RowShape>> mLists = new LinkedHashMap<>();
+
+        FileShape(DataFile file) {
+            mType = file.getJSONTypeName();
+            mID = file.getID().toString();
+            if (file instanceof ListFile) {
+                mLists.put(KEY_ROWS, captureRows(((ListFile) file).getTopLevelRows()));
+            } else if (file instanceof GURPSCharacter) {
+                GURPSCharacter character = (GURPSCharacter) file;
+                mLists.put(GURPSCharacter.KEY_ADVANTAGES, captureRows(character.getAdvantagesModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_SKILLS, captureRows(character.getSkillsRoot().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_SPELLS, captureRows(character.getSpellsRoot().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_EQUIPMENT, captureRows(character.getEquipmentRoot().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_OTHER_EQUIPMENT, captureRows(character.getOtherEquipmentRoot().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_NOTES, captureRows(character.getNotesRoot().getTopLevelRows()));
+            } else if (file instanceof Template) {
+                Template template = (Template) file;
+                mLists.put(GURPSCharacter.KEY_ADVANTAGES, captureRows(template.getAdvantagesModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_SKILLS, captureRows(template.getSkillsModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_SPELLS, captureRows(template.getSpellsModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_EQUIPMENT, captureRows(template.getEquipmentModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_OTHER_EQUIPMENT, captureRows(template.getOtherEquipmentModel().getTopLevelRows()));
+                mLists.put(GURPSCharacter.KEY_NOTES, captureRows(template.getNotesModel().getTopLevelRows()));
+            }
+        }
+
+        String check(Path path) {
+            Object root;
+            try (InputStream in = Files.newInputStream(path)) {
+                root = Json.parse(in);
+            } catch (IOException ioe) {
+                return path + ": " + ioe.getMessage();
+            }
+            if (!(root instanceof JsonMap)) {
+                return path + ": not a JSON object";
+            }
+            JsonMap m    = (JsonMap) root;
+            String  type = m.getString(DataFile.KEY_TYPE);
+            if (!mType.equals(type)) {
+                return path + ": expected type " + mType + ", found " + type;
+            }
+            if (!mID.equals(m.getString(DataFile.ATTRIBUTE_ID))) {
+                return path + ": id mismatch";
+            }
+            for (Map.Entry<String, List<RowShape>> entry : mLists.entrySet()) {
+                String key     = entry.getKey();
+                String problem = checkRows(path + ": " + key, m.getArray(key), entry.getValue());
+                if (problem != null) {
+                    return problem;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class RowShape {
+        private ListRow            mRow;
+        private String             mType;
+        private List<RowShape>     mChildren;
+        private List<WeaponStats>  mWeapons;
+        private List<SkillDefault> mDefaults;
+
+        RowShape(ListRow row) {
+            mRow = row;
+            mType = row.getJSONTypeName();
+            if (row.canHaveChildren()) {
+                mChildren = captureRows(row.getChildren());
+            }
+            List<WeaponStats> weapons = null;
+            if (row instanceof Advantage) {
+                weapons = ((Advantage) row).getWeapons();
+            } else if (row instanceof Equipment) {
+                weapons = ((Equipment) row).getWeapons();
+            } else if (row instanceof Skill) {
+                weapons = ((Skill) row).getWeapons();
+            } else if (row instanceof Spell) {
+                weapons = ((Spell) row).getWeapons();
+            }
+            mWeapons = weapons != null ? new ArrayList<>(weapons) : Collections.emptyList();
+            if (row instanceof Technique) {
+                mDefaults = Collections.singletonList(new SkillDefault(((Technique) row).getDefault()));
+            } else {
+                mDefaults = new ArrayList<>(row.getDefaults());
+            }
+        }
+
+        String check(String where, JsonMap m) {
+            String type = m.getString(DataFile.KEY_TYPE);
+            if (!mType.equals(type)) {
+                return where + ": expected type " + mType + ", found " + type;
+            }
+            try {
+                List<WeaponStats> weapons = new ArrayList<>();
+                WeaponStats.loadFromJSONArray(mRow, m.getArray(KEY_WEAPONS), weapons);
+                if (!weapons.equals(mWeapons)) {
+                    return where + ": weapons differ";
+                }
+                List<SkillDefault> defaults = new ArrayList<>();
+                if (mRow instanceof Technique) {
+                    defaults.add(new SkillDefault(m.getMap(KEY_DEFAULT), false));
+                } else {
+                    JsonArray a     = m.getArray(KEY_DEFAULTS);
+                    int       count = a.size();
+                    for (int i = 0; i < count; i++) {
+                        defaults.add(new SkillDefault(a.getMap(i), false));
+                    }
+                }
+                if (!defaults.equals(mDefaults)) {
+                    return where + ": defaults differ";
+                }
+            } catch (Exception exception) {
+                return where + ": " + exception;
+            }
+            if (mChildren != null) {
+                return checkRows(where + "." + KEY_CHILDREN, m.getArray(KEY_CHILDREN), mChildren);
+            }
+            return null;
+        }
+    }
+}
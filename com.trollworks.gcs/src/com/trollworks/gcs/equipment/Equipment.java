@@ -17,8 +17,6 @@ import com.trollworks.gcs.datafile.LoadState;
 import com.trollworks.gcs.feature.ContainedWeightReduction;
 import com.trollworks.gcs.feature.Feature;
 import com.trollworks.gcs.modifier.EquipmentModifier;
-import com.trollworks.gcs.modifier.EquipmentModifierCostType;
-import com.trollworks.gcs.modifier.EquipmentModifierWeightType;
 import com.trollworks.gcs.modifier.Fraction;
 import com.trollworks.gcs.modifier.Modifier;
 import com.trollworks.gcs.modifier.ModifierCostValueType;
@@ -170,17 +168,16 @@ public class Equipment extends ListRow {
         for (EquipmentModifier modifier : equipment.mModifiers) {
             mModifiers.add(new EquipmentModifier(mDataFile, modifier, false));
         }
-        mExtendedValue = new Fixed6(mQuantity).mul(getAdjustedValue());
-        mExtendedWeight = new WeightValue(getAdjustedWeight(false));
-        mExtendedWeight.setValue(mExtendedWeight.getValue().mul(new Fixed6(mQuantity)));
-        mExtendedWeightForSkills = new WeightValue(getAdjustedWeight(true));
-        mExtendedWeightForSkills.setValue(mExtendedWeightForSkills.getValue().mul(new Fixed6(mQuantity)));
         if (deep) {
             int count = equipment.getChildCount();
             for (int i = 0; i < count; i++) {
                 addChild(new Equipment(dataFile, (Equipment) equipment.getChild(i), true));
             }
         }
+        // Each cloned child has already computed its own extended values, so only this row needs
+        // to be rolled up.
+        calculateExtendedValue();
+        calculateExtendedWeight();
     }
 
     /**
@@ -320,8 +317,10 @@ public class Equipment extends ListRow {
         } else if (mUses < 0) {
             mUses = 0;
         }
-        updateExtendedValue(false);
-        updateExtendedWeight(false);
+        // Children are fully loaded before being attached, so they have already computed their
+        // extended values and there is no parent yet to cascade to.
+        calculateExtendedValue();
+        calculateExtendedWeight();
         super.finishedLoading(state);
     }
 
@@ -354,13 +353,28 @@ public class Equipment extends ListRow {
 
     @Override
     public void update() {
-        updateExtendedValue(true);
-        updateExtendedWeight(true);
+        updateContainingValues(true);
+        updateContainingWeights(true);
     }
 
     public void updateNoNotify() {
-        updateExtendedValue(false);
-        updateExtendedWeight(false);
+        updateContainingValues(false);
+        updateContainingWeights(false);
+    }
+
+    /**
+     * Recomputes the extended value and weight of this row and all of its descendants in a single
+     * post-order pass. Unlike the setters, which cascade a single change up through the ancestors,
+     * this touches each row exactly once and does not update this row's ancestors, so it is the
+     * appropriate way to bring an entire tree up to date after a bulk change.
+     */
+    public void updateExtendedTree() {
+        int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            ((Equipment) getChild(i)).updateExtendedTree();
+        }
+        calculateExtendedValue();
+        calculateExtendedWeight();
     }
 
     /** @return The quantity. */
@@ -483,25 +497,39 @@ public class Equipment extends ListRow {
      * @return The adjusted value.
      */
     public static Fixed6 getValueAdjustedForModifiers(Fixed6 value, List<EquipmentModifier> modifiers) {
-        // Apply all EquipmentModifierCostType.TO_ORIGINAL_COST
-        Fixed6 cost = processNonCFStep(EquipmentModifierCostType.TO_ORIGINAL_COST, value, modifiers);
+        if (modifiers.isEmpty()) {
+            return value.greaterThanOrEqual(Fixed6.ZERO) ? value : Fixed6.ZERO;
+        }
 
-        // Apply all EquipmentModifierCostType.TO_BASE_COST
-        Fixed6 cf    = Fixed6.ZERO;
-        int    count = 0;
+        // Gather the adjustments for every phase in a single pass over the enabled modifiers
+        CostStep           originalStep  = new CostStep();
+        CostStep           finalBaseStep = new CostStep();
+        CostStep           finalStep     = new CostStep();
+        Fixed6.Accumulator cfSum         = new Fixed6.Accumulator();
         for (EquipmentModifier modifier : modifiers) {
-            if (modifier.isEnabled() && modifier.getCostAdjType() == EquipmentModifierCostType.TO_BASE_COST) {
-                String                adj = modifier.getCostAdjAmount();
-                ModifierCostValueType mvt = EquipmentModifierCostType.TO_BASE_COST.determineType(adj);
-                Fixed6                amt = mvt.extractValue(adj, false);
-                if (mvt == ModifierCostValueType.MULTIPLIER) {
-                    amt = amt.sub(Fixed6.ONE);
+            if (modifier.isEnabled()) {
+                ModifierCostValueType mvt = modifier.getCostAdjValueType();
+                Fixed6                amt = modifier.getCostAdjValue();
+                switch (modifier.getCostAdjType()) {
+                case TO_ORIGINAL_COST -> originalStep.add(mvt, amt);
+                case TO_BASE_COST -> {
+                    cfSum.add(amt);
+                    if (mvt == ModifierCostValueType.MULTIPLIER) {
+                        cfSum.sub(Fixed6.ONE);
+                    }
+                }
+                case TO_FINAL_BASE_COST -> finalBaseStep.add(mvt, amt);
+                case TO_FINAL_COST -> finalStep.add(mvt, amt);
                 }
-                cf = cf.add(amt);
-                count++;
             }
         }
-        if (!cf.equals(Fixed6.ZERO)) {
+
+        // Apply all EquipmentModifierCostType.TO_ORIGINAL_COST
+        Fixed6 cost = originalStep.apply(value);
+
+        // Apply all EquipmentModifierCostType.TO_BASE_COST
+        if (!cfSum.isZero()) {
+            Fixed6 cf = cfSum.toFixed6();
             if (cf.lessThan(MIN_CF)) {
                 cf = MIN_CF;
             }
@@ -509,34 +537,47 @@ public class Equipment extends ListRow {
         }
 
         // Apply all EquipmentModifierCostType.TO_FINAL_BASE_COST
-        cost = processNonCFStep(EquipmentModifierCostType.TO_FINAL_BASE_COST, cost, modifiers);
+        cost = finalBaseStep.apply(cost);
 
         // Apply all EquipmentModifierCostType.TO_FINAL_COST
-        cost = processNonCFStep(EquipmentModifierCostType.TO_FINAL_COST, cost, modifiers);
+        cost = finalStep.apply(cost);
         return cost.greaterThanOrEqual(Fixed6.ZERO) ? cost : Fixed6.ZERO;
     }
 
-    private static Fixed6 processNonCFStep(EquipmentModifierCostType costType, Fixed6 value, List<EquipmentModifier> modifiers) {
-        Fixed6 percentages = Fixed6.ZERO;
-        Fixed6 additions   = Fixed6.ZERO;
-        Fixed6 cost        = value;
-        for (EquipmentModifier modifier : modifiers) {
-            if (modifier.isEnabled() && modifier.getCostAdjType() == costType) {
-                String                adj = modifier.getCostAdjAmount();
-                ModifierCostValueType mvt = costType.determineType(adj);
-                Fixed6                amt = mvt.extractValue(adj, false);
-                switch (mvt) {
-                case ADDITION -> additions = additions.add(amt);
-                case PERCENTAGE -> percentages = percentages.add(amt);
-                case MULTIPLIER -> cost = cost.mul(amt);
+    /** Accumulates the non-CF cost adjustments for a single phase. */
+    private static final class CostStep {
+        private Fixed6.Accumulator mAdditions   = new Fixed6.Accumulator();
+        private Fixed6.Accumulator mPercentages = new Fixed6.Accumulator();
+        private List<Fixed6>       mMultipliers;
+
+        void add(ModifierCostValueType mvt, Fixed6 amt) {
+            switch (mvt) {
+            case ADDITION -> mAdditions.add(amt);
+            case PERCENTAGE -> mPercentages.add(amt);
+            case MULTIPLIER -> {
+                if (mMultipliers == null) {
+                    mMultipliers = new ArrayList<>();
                 }
+                mMultipliers.add(amt);
+            }
             }
         }
-        cost = cost.add(additions);
-        if (!percentages.equals(Fixed6.ZERO)) {
-            cost = cost.add(value.mul(percentages.div(new Fixed6(100))));
+
+        Fixed6 apply(Fixed6 value) {
+            Fixed6 cost = value;
+            if (mMultipliers != null) {
+                for (Fixed6 multiplier : mMultipliers) {
+                    cost = cost.mul(multiplier);
+                }
+            }
+            if (!mAdditions.isZero()) {
+                cost = cost.add(mAdditions.toFixed6());
+            }
+            if (!mPercentages.isZero()) {
+                cost = cost.add(value.mul(mPercentages.toFixed6().div(Fixed6.HUNDRED)));
+            }
+            return cost;
         }
-        return cost;
     }
 
     /** @return The value. */
@@ -576,68 +617,91 @@ public class Equipment extends ListRow {
      * @return The adjusted value.
      */
     public WeightValue getWeightAdjustedForModifiers(WeightValue weight, List<EquipmentModifier> modifiers) {
-        WeightUnits defUnits = getDataFile().defaultWeightUnits();
         weight = new WeightValue(weight);
-
-        // Apply all EquipmentModifierWeightType.TO_ORIGINAL_COST
-        Fixed6      percentages = Fixed6.ZERO;
-        WeightValue original    = new WeightValue(weight);
+        if (modifiers.isEmpty()) {
+            if (weight.getValue().lessThan(Fixed6.ZERO)) {
+                weight.setValue(Fixed6.ZERO);
+            }
+            return weight;
+        }
+
+        // Gather the adjustments for every phase in a single pass over the enabled modifiers. All
+        // additions are converted into the units of the weight being adjusted, which is what
+        // WeightValue.add() would do when applying them one at a time.
+        WeightUnits        defUnits    = getDataFile().defaultWeightUnits();
+        WeightUnits        units       = weight.getUnits();
+        Fixed6.Accumulator additions   = new Fixed6.Accumulator();
+        Fixed6.Accumulator percentages = new Fixed6.Accumulator();
+        WeightStep         baseStep    = new WeightStep();
+        WeightStep         finalBase   = new WeightStep();
+        WeightStep         finalStep   = new WeightStep();
         for (EquipmentModifier modifier : modifiers) {
-            if (modifier.isEnabled() && modifier.getWeightAdjType() == EquipmentModifierWeightType.TO_ORIGINAL_WEIGHT) {
-                String                  adj = modifier.getWeightAdjAmount();
-                ModifierWeightValueType mvt = EquipmentModifierWeightType.TO_ORIGINAL_WEIGHT.determineType(adj);
-                Fixed6                  amt = mvt.extractFraction(adj, false).value();
-                if (mvt == ModifierWeightValueType.ADDITION) {
-                    weight.add(new WeightValue(amt, ModifierWeightValueType.extractUnits(adj, defUnits)));
-                } else {
-                    percentages = percentages.add(amt);
+            if (modifier.isEnabled()) {
+                ModifierWeightValueType mvt      = modifier.getWeightAdjValueType();
+                Fraction                fraction = modifier.getWeightAdjFraction();
+                switch (modifier.getWeightAdjType()) {
+                case TO_ORIGINAL_WEIGHT -> {
+                    if (mvt == ModifierWeightValueType.ADDITION) {
+                        additions.add(units.convert(modifier.getWeightAdjUnits(defUnits), fraction.value()));
+                    } else {
+                        percentages.add(fraction.value());
+                    }
+                }
+                case TO_BASE_WEIGHT -> baseStep.add(mvt, fraction, units.convert(modifier.getWeightAdjUnits(defUnits), fraction.value()));
+                case TO_FINAL_BASE_WEIGHT -> finalBase.add(mvt, fraction, units.convert(modifier.getWeightAdjUnits(defUnits), fraction.value()));
+                case TO_FINAL_WEIGHT -> finalStep.add(mvt, fraction, units.convert(modifier.getWeightAdjUnits(defUnits), fraction.value()));
                 }
             }
         }
-        if (!percentages.equals(Fixed6.ZERO)) {
-            original.setValue(original.getValue().mul(percentages.div(new Fixed6(100))));
-            weight.add(original);
+
+        // Apply all EquipmentModifierWeightType.TO_ORIGINAL_WEIGHT
+        Fixed6 value = weight.getValue().add(additions.toFixed6());
+        if (!percentages.isZero()) {
+            value = value.add(weight.getValue().mul(percentages.toFixed6().div(Fixed6.HUNDRED)));
         }
 
-        // Apply all EquipmentModifierWeightType.TO_BASE_COST
-        weight = processMultiplyAddWeightStep(EquipmentModifierWeightType.TO_BASE_WEIGHT, weight, defUnits, modifiers);
+        // Apply all EquipmentModifierWeightType.TO_BASE_WEIGHT
+        value = baseStep.apply(value);
 
-        // Apply all EquipmentModifierWeightType.TO_FINAL_BASE_COST
-        weight = processMultiplyAddWeightStep(EquipmentModifierWeightType.TO_FINAL_BASE_WEIGHT, weight, defUnits, modifiers);
+        // Apply all EquipmentModifierWeightType.TO_FINAL_BASE_WEIGHT
+        value = finalBase.apply(value);
 
-        // Apply all EquipmentModifierWeightType.TO_FINAL_COST
-        weight = processMultiplyAddWeightStep(EquipmentModifierWeightType.TO_FINAL_WEIGHT, weight, defUnits, modifiers);
-        if (weight.getValue().lessThan(Fixed6.ZERO)) {
-            weight.setValue(Fixed6.ZERO);
-        }
+        // Apply all EquipmentModifierWeightType.TO_FINAL_WEIGHT
+        value = finalStep.apply(value);
+        weight.setValue(value.lessThan(Fixed6.ZERO) ? Fixed6.ZERO : value);
         return weight;
     }
 
-    private WeightValue processMultiplyAddWeightStep(EquipmentModifierWeightType weightType, WeightValue weight, WeightUnits defUnits, List<EquipmentModifier> modifiers) {
-        weight = new WeightValue(weight);
-        WeightValue sum = new WeightValue(Fixed6.ZERO, weight.getUnits());
-        for (EquipmentModifier modifier : modifiers) {
-            if (modifier.isEnabled() && modifier.getWeightAdjType() == weightType) {
-                String                  adj      = modifier.getWeightAdjAmount();
-                ModifierWeightValueType mvt      = weightType.determineType(adj);
-                Fraction                fraction = mvt.extractFraction(adj, false);
-                switch (mvt) {
-                case MULTIPLIER:
-                    weight.setValue(weight.getValue().mul(fraction.mNumerator).div(fraction.mDenominator));
-                    break;
-                case PERCENTAGE_MULTIPLIER:
-                    weight.setValue(weight.getValue().mul(fraction.mNumerator).div(fraction.mDenominator.mul(new Fixed6(100))));
-                    break;
-                case ADDITION:
-                    sum.add(new WeightValue(fraction.value(), ModifierWeightValueType.extractUnits(adj, defUnits)));
-                    break;
-                default:
-                    break;
+    /** Accumulates the multiply/add weight adjustments for a single phase. */
+    private static final class WeightStep {
+        private Fixed6.Accumulator mAdditions = new Fixed6.Accumulator();
+        private List<Fraction>     mMultipliers;
+
+        void add(ModifierWeightValueType mvt, Fraction fraction, Fixed6 convertedAddition) {
+            switch (mvt) {
+            case MULTIPLIER -> addMultiplier(fraction);
+            case PERCENTAGE_MULTIPLIER -> addMultiplier(new Fraction(fraction.mNumerator, fraction.mDenominator.mul(Fixed6.HUNDRED)));
+            case ADDITION -> mAdditions.add(convertedAddition);
+            default -> {
+            }
+            }
+        }
+
+        private void addMultiplier(Fraction fraction) {
+            if (mMultipliers == null) {
+                mMultipliers = new ArrayList<>();
+            }
+            mMultipliers.add(fraction);
+        }
+
+        Fixed6 apply(Fixed6 value) {
+            if (mMultipliers != null) {
+                for (Fraction fraction : mMultipliers) {
+                    value = value.mul(fraction.mNumerator).div(fraction.mDenominator);
                 }
             }
+            return value.add(mAdditions.toFixed6());
         }
-        weight.add(sum);
-        return weight;
     }
 
     /** @return The weight. */
@@ -658,41 +722,41 @@ public class Equipment extends ListRow {
         return false;
     }
 
-    private boolean updateExtendedWeight(boolean okToNotify) {
+    private boolean calculateExtendedWeight() {
         WeightValue saved          = mExtendedWeight;
         WeightValue savedForSkills = mExtendedWeightForSkills;
         int         count          = getChildCount();
         WeightUnits units          = mWeight.getUnits();
-        mExtendedWeight = new WeightValue(getAdjustedWeight(false).getValue().mul(new Fixed6(mQuantity)), units);
-        mExtendedWeightForSkills = new WeightValue(getAdjustedWeight(true).getValue().mul(new Fixed6(mQuantity)), units);
+        Fixed6      quantity       = Fixed6.valueOf(mQuantity);
+        Fixed6      adjusted       = getAdjustedWeight(false).getValue().mul(quantity);
+        mExtendedWeight = new WeightValue(adjusted, units);
+        mExtendedWeightForSkills = new WeightValue(mWeightIgnoredForSkills ? Fixed6.ZERO : adjusted, units);
         WeightValue contained          = new WeightValue(Fixed6.ZERO, units);
         WeightValue containedForSkills = new WeightValue(Fixed6.ZERO, units);
         for (int i = 0; i < count; i++) {
-            Equipment   one    = (Equipment) getChild(i);
-            WeightValue weight = one.mExtendedWeight;
-            contained.add(weight);
-            weight = one.mExtendedWeightForSkills;
-            containedForSkills.add(weight);
+            Equipment one = (Equipment) getChild(i);
+            contained.add(one.mExtendedWeight);
+            containedForSkills.add(one.mExtendedWeightForSkills);
         }
-        Fixed6      percentage = Fixed6.ZERO;
+        long        percentage = 0;
         WeightValue reduction  = new WeightValue(Fixed6.ZERO, units);
         for (Feature feature : getFeatures()) {
             if (feature instanceof ContainedWeightReduction) {
                 ContainedWeightReduction cwr = (ContainedWeightReduction) feature;
                 if (cwr.isPercentage()) {
-                    percentage = percentage.add(new Fixed6(cwr.getPercentageReduction()));
+                    percentage += cwr.getPercentageReduction();
                 } else {
                     reduction.add(cwr.getAbsoluteReduction(mDataFile.defaultWeightUnits()));
                 }
             }
         }
-        for (EquipmentModifier modifier : getModifiers()) {
+        for (EquipmentModifier modifier : mModifiers) {
             if (modifier.isEnabled()) {
                 for (Feature feature : modifier.getFeatures()) {
                     if (feature instanceof ContainedWeightReduction) {
                         ContainedWeightReduction cwr = (ContainedWeightReduction) feature;
                         if (cwr.isPercentage()) {
-                            percentage = percentage.add(new Fixed6(cwr.getPercentageReduction()));
+                            percentage += cwr.getPercentageReduction();
                         } else {
                             reduction.add(cwr.getAbsoluteReduction(mDataFile.defaultWeightUnits()));
                         }
@@ -700,14 +764,14 @@ public class Equipment extends ListRow {
                 }
             }
         }
-        if (percentage.greaterThan(Fixed6.ZERO)) {
-            Fixed6 oneHundred = new Fixed6(100);
-            if (percentage.greaterThanOrEqual(oneHundred)) {
+        if (percentage > 0) {
+            if (percentage >= 100) {
                 contained = new WeightValue(Fixed6.ZERO, units);
                 containedForSkills = new WeightValue(Fixed6.ZERO, units);
             } else {
-                contained.subtract(new WeightValue(contained.getValue().mul(percentage).div(oneHundred), contained.getUnits()));
-                containedForSkills.subtract(new WeightValue(containedForSkills.getValue().mul(percentage).div(oneHundred), containedForSkills.getUnits()));
+                Fixed6 pct = Fixed6.valueOf(percentage);
+                contained.subtract(new WeightValue(contained.getValue().mul(pct).div(Fixed6.HUNDRED), contained.getUnits()));
+                containedForSkills.subtract(new WeightValue(containedForSkills.getValue().mul(pct).div(Fixed6.HUNDRED), containedForSkills.getUnits()));
             }
         }
         contained.subtract(reduction);
@@ -718,17 +782,14 @@ public class Equipment extends ListRow {
         if (containedForSkills.getNormalizedValue().greaterThan(Fixed6.ZERO)) {
             mExtendedWeightForSkills.add(containedForSkills);
         }
-        if (getParent() instanceof Equipment) {
-            ((Equipment) getParent()).updateContainingWeights(okToNotify);
-        }
-        return !saved.equals(mExtendedWeight) || !savedForSkills.equals(mExtendedWeightForSkills);
+        return !mExtendedWeight.equals(saved) || !mExtendedWeightForSkills.equals(savedForSkills);
     }
 
     private void updateContainingWeights(boolean okToNotify) {
         Row parent = this;
         while (parent instanceof Equipment) {
             Equipment parentRow = (Equipment) parent;
-            if (parentRow.updateExtendedWeight(okToNotify)) {
+            if (parentRow.calculateExtendedWeight()) {
                 parent = parentRow.getParent();
             } else {
                 break;
@@ -736,17 +797,14 @@ public class Equipment extends ListRow {
         }
     }
 
-    private boolean updateExtendedValue(boolean okToNotify) {
-        Fixed6 savedValue = mExtendedValue;
-        int    count      = getChildCount();
-        mExtendedValue = new Fixed6(mQuantity).mul(getAdjustedValue());
+    private boolean calculateExtendedValue() {
+        Fixed6             savedValue = mExtendedValue;
+        int                count      = getChildCount();
+        Fixed6.Accumulator total      = new Fixed6.Accumulator(Fixed6.valueOf(mQuantity).mul(getAdjustedValue()));
         for (int i = 0; i < count; i++) {
-            Equipment child = (Equipment) getChild(i);
-            mExtendedValue = mExtendedValue.add(child.mExtendedValue);
-        }
-        if (getParent() instanceof Equipment) {
-            ((Equipment) getParent()).updateContainingValues(okToNotify);
+            total.add(((Equipment) getChild(i)).mExtendedValue);
         }
+        mExtendedValue = total.toFixed6();
         return !mExtendedValue.equals(savedValue);
     }
 
@@ -754,7 +812,7 @@ public class Equipment extends ListRow {
         Row parent = this;
         while (parent instanceof Equipment) {
             Equipment parentRow = (Equipment) parent;
-            if (parentRow.updateExtendedValue(okToNotify)) {
+            if (parentRow.calculateExtendedValue()) {
                 parent = parentRow.getParent();
             } else {
                 break;
@@ -18,6 +18,7 @@ import com.trollworks.gcs.utility.Fixed6;
 import com.trollworks.gcs.utility.SaveType;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Enums;
+import com.trollworks.gcs.utility.units.WeightUnits;
 import com.trollworks.gcs.utility.units.WeightValue;
 import com.trollworks.gcs.utility.xml.XMLReader;
 
@@ -56,6 +57,11 @@ public class EquipmentModifier extends Modifier {
     private              EquipmentModifierWeightType mWeightType;
     private              String                      mWeightAmount;
     private              String                      mTechLevel;
+    private              ModifierCostValueType       mCostValueType;
+    private              Fixed6                      mCostValue;
+    private              ModifierWeightValueType     mWeightValueType;
+    private              Fraction                    mWeightFraction;
+    private              WeightUnits                 mWeightUnits;
 
     /**
      * Creates a new {@link EquipmentModifier}.
@@ -144,6 +150,7 @@ public class EquipmentModifier extends Modifier {
     public boolean setCostAdjType(EquipmentModifierCostType costType) {
         if (costType != mCostType) {
             mCostType = costType;
+            mCostValueType = null;
             return true;
         }
         return false;
@@ -162,11 +169,31 @@ public class EquipmentModifier extends Modifier {
         amount = mCostType.format(amount, false);
         if (!mCostAmount.equals(amount)) {
             mCostAmount = amount;
+            mCostValueType = null;
             return true;
         }
         return false;
     }
 
+    /**
+     * @return How the cost adjustment amount is to be interpreted. The parsed result is cached
+     *         until the cost type or amount changes.
+     */
+    public ModifierCostValueType getCostAdjValueType() {
+        if (mCostValueType == null) {
+            ModifierCostValueType mvt = mCostType.determineType(mCostAmount);
+            mCostValue = mvt.extractValue(mCostAmount, false);
+            mCostValueType = mvt;
+        }
+        return mCostValueType;
+    }
+
+    /** @return The numeric value of the cost adjustment amount. */
+    public Fixed6 getCostAdjValue() {
+        getCostAdjValueType();
+        return mCostValue;
+    }
+
     /** @return The type of the weight modifier. */
     public EquipmentModifierWeightType getWeightAdjType() {
         return mWeightType;
@@ -179,6 +206,7 @@ public class EquipmentModifier extends Modifier {
     public boolean setWeightAdjType(EquipmentModifierWeightType weightType) {
         if (weightType != mWeightType) {
             mWeightType = weightType;
+            mWeightValueType = null;
             return true;
         }
         return false;
@@ -197,11 +225,41 @@ public class EquipmentModifier extends Modifier {
         amount = mWeightType.format(amount, getDataFile().defaultWeightUnits(), false);
         if (!mWeightAmount.equals(amount)) {
             mWeightAmount = amount;
+            mWeightValueType = null;
             return true;
         }
         return false;
     }
 
+    /**
+     * @return How the weight adjustment amount is to be interpreted. The parsed result is cached
+     *         until the weight type or amount changes.
+     */
+    public ModifierWeightValueType getWeightAdjValueType() {
+        if (mWeightValueType == null) {
+            ModifierWeightValueType mvt = mWeightType.determineType(mWeightAmount);
+            mWeightFraction = mvt.extractFraction(mWeightAmount, false);
+            mWeightUnits = ModifierWeightValueType.extractUnits(mWeightAmount, null);
+            mWeightValueType = mvt;
+        }
+        return mWeightValueType;
+    }
+
+    /** @return The numeric value of the weight adjustment amount. Must not be modified. */
+    public Fraction getWeightAdjFraction() {
+        getWeightAdjValueType();
+        return mWeightFraction;
+    }
+
+    /**
+     * @param defUnits The units to return if the weight adjustment amount doesn't specify any.
+     * @return The units of the weight adjustment amount.
+     */
+    public WeightUnits getWeightAdjUnits(WeightUnits defUnits) {
+        getWeightAdjValueType();
+        return mWeightUnits != null ? mWeightUnits : defUnits;
+    }
+
     @Override
     public String getJSONTypeName() {
         return canHaveChildren() ? TAG_MODIFIER_CONTAINER : TAG_MODIFIER;
@@ -225,6 +283,8 @@ public class EquipmentModifier extends Modifier {
         mWeightType = EquipmentModifierWeightType.TO_ORIGINAL_WEIGHT;
         mWeightAmount = getDefaultWeightAmount();
         mTechLevel = "";
+        mCostValueType = null;
+        mWeightValueType = null;
     }
 
     @Override
@@ -236,9 +296,11 @@ public class EquipmentModifier extends Modifier {
             if (TAG_COST_ADJ.equals(name)) {
                 mCostType = Enums.extract(reader.getAttribute(ATTRIBUTE_COST_TYPE), EquipmentModifierCostType.values(), EquipmentModifierCostType.TO_ORIGINAL_COST);
                 mCostAmount = mCostType.format(reader.readText(), false);
+                mCostValueType = null;
             } else if (TAG_WEIGHT_ADJ.equals(name)) {
                 mWeightType = Enums.extract(reader.getAttribute(ATTRIBUTE_WEIGHT_TYPE), EquipmentModifierWeightType.values(), EquipmentModifierWeightType.TO_ORIGINAL_WEIGHT);
                 mWeightAmount = mWeightType.format(reader.readText(), getDataFile().defaultWeightUnits(), false);
+                mWeightValueType = null;
             } else if (TAG_TECH_LEVEL.equals(name)) {
                 mTechLevel = reader.readText().replace("\n", " ");
             } else {
@@ -41,9 +41,8 @@ public class Fraction {
             mNumerator = Fixed6.ZERO;
             mDenominator = Fixed6.ONE;
         } else if (mDenominator.lessThan(Fixed6.ZERO)) {
-            Fixed6 negOne = new Fixed6(-1);
-            mNumerator = mNumerator.mul(negOne);
-            mDenominator = mDenominator.mul(negOne);
+            mNumerator = mNumerator.mul(Fixed6.NEG_ONE);
+            mDenominator = mDenominator.mul(Fixed6.NEG_ONE);
         }
     }
 
@@ -31,7 +31,7 @@ public enum ModifierWeightValueType {
     }, PERCENTAGE_MULTIPLIER {
         @Override
         Fraction adjustFraction(Fraction fraction) {
-            return fraction.mNumerator.lessThanOrEqual(Fixed6.ZERO) ? new Fraction(new Fixed6(100), Fixed6.ONE) : fraction;
+            return fraction.mNumerator.lessThanOrEqual(Fixed6.ZERO) ? new Fraction(Fixed6.HUNDRED, Fixed6.ONE) : fraction;
         }
 
         @Override
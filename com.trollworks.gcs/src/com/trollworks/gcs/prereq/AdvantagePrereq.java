@@ -11,6 +11,8 @@
 
 package com.trollworks.gcs.prereq;
 
+import com.trollworks.gcs.advantage.Advantage;
+import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.StringCompareType;
 import com.trollworks.gcs.criteria.StringCriteria;
 import com.trollworks.gcs.ui.widget.outline.ListRow;
@@ -116,6 +118,27 @@ public class AdvantagePrereq extends NameLevelPrereq {
         mNotesCriteria.setQualifier(ListRow.nameNameables(map, mNotesCriteria.getQualifier()));
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        index.addAdvantage(getNameCriteria(), row);
+    }
+
+    @Override
+    PrereqCheck compile() {
+        StringCriteria  nameCriteria  = new StringCriteria(getNameCriteria());
+        StringCriteria  notesCriteria = new StringCriteria(mNotesCriteria);
+        IntegerCriteria levelCriteria = new IntegerCriteria(getLevelCriteria());
+        String          key           = nameCriteria.isTypeIs() ? PrereqIndex.fold(nameCriteria.getQualifier()) : null;
+        return (index, exclude) -> {
+            for (Advantage advantage : index.getAdvantages(key)) {
+                if (advantage != exclude && nameCriteria.matches(advantage.getName()) && notesCriteria.matches(advantage.getNotes())) {
+                    return levelCriteria.matches(Math.max(advantage.getLevels(), 0));
+                }
+            }
+            return false;
+        };
+    }
+
     /** @return The notes comparison object. */
     public StringCriteria getNotesCriteria() {
         return mNotesCriteria;
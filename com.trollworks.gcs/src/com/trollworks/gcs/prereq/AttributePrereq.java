@@ -15,6 +15,7 @@ import com.trollworks.gcs.character.GURPSCharacter;
 import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.NumericCompareType;
 import com.trollworks.gcs.feature.BonusAttributeType;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Enums;
 import com.trollworks.gcs.utility.xml.XMLReader;
@@ -137,6 +138,25 @@ public class AttributePrereq extends HasPrereq {
         mCombinedWith = which;
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        index.addAttribute(mWhich, row);
+        if (mCombinedWith != null) {
+            index.addAttribute(mCombinedWith, row);
+        }
+    }
+
+    @Override
+    PrereqCheck compile() {
+        BonusAttributeType which        = mWhich;
+        BonusAttributeType combinedWith = mCombinedWith;
+        IntegerCriteria    criteria     = new IntegerCriteria(mValueCompare);
+        return (index, exclude) -> {
+            GURPSCharacter character = index.getCharacter();
+            return criteria.matches(getAttributeValue(character, which) + getAttributeValue(character, combinedWith));
+        };
+    }
+
     private static int getAttributeValue(GURPSCharacter character, BonusAttributeType attribute) {
         if (attribute == null) {
             return 0;
@@ -0,0 +1,168 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.prereq;
+
+import com.trollworks.gcs.criteria.IntegerCriteria;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link PrereqList} flattened into a sequence of tests and jumps, so that evaluating it neither
+ * walks the prerequisite tree nor stops to look at each list's settings. As soon as the outcome
+ * of a list is known, the remainder of it is skipped.
+ * <p>
+ * The compiled form is a copy: changes made to the {@link PrereqList} afterwards require it to be
+ * compiled again.
+ */
+public final class CompiledPrereqList implements PrereqCheck {
+    private static final byte          TEST          = 0;
+    private static final byte          TEST_NOT      = 1;
+    private static final byte          JUMP_IF_TRUE  = 2;
+    private static final byte          JUMP_IF_FALSE = 3;
+    private static final byte          SET_TRUE      = 4;
+    private static final byte          SET_FALSE     = 5;
+    private              byte[]        mOps;
+    private              int[]         mArgs;
+    private              PrereqCheck[] mChecks;
+
+    CompiledPrereqList(PrereqList list) {
+        Compiler compiler = new Compiler();
+        compiler.compileList(list);
+        compiler.threadJumps();
+        int count = compiler.mOps.size();
+        mOps = new byte[count];
+        mArgs = new int[count];
+        for (int i = 0; i < count; i++) {
+            mOps[i] = compiler.mOps.get(i);
+            mArgs[i] = compiler.mArgs.get(i);
+        }
+        mChecks = compiler.mChecks.toArray(new PrereqCheck[0]);
+    }
+
+    /**
+     * @param index   The character to check against.
+     * @param exclude The row the prerequisites belong to, which is never counted as satisfying
+     *                them. May be {@code null}.
+     * @return Whether the prerequisites are satisfied.
+     */
+    @Override
+    public boolean satisfied(PrereqIndex index, ListRow exclude) {
+        byte[]  ops    = mOps;
+        int[]   args   = mArgs;
+        int     count  = ops.length;
+        int     pc     = 0;
+        boolean result = true;
+        while (pc < count) {
+            int arg = args[pc];
+            switch (ops[pc++]) {
+                case TEST -> result = mChecks[arg].satisfied(index, exclude);
+                case TEST_NOT -> result = !mChecks[arg].satisfied(index, exclude);
+                case JUMP_IF_TRUE -> {
+                    if (result) {
+                        pc = arg;
+                    }
+                }
+                case JUMP_IF_FALSE -> {
+                    if (!result) {
+                        pc = arg;
+                    }
+                }
+                case SET_TRUE -> result = true;
+                default -> result = false;
+            }
+        }
+        return result;
+    }
+
+    /** @return The number of steps in the compiled program. */
+    public int size() {
+        return mOps.length;
+    }
+
+    private static class Compiler {
+        List<Byte>        mOps    = new ArrayList<>();
+        List<Integer>     mArgs   = new ArrayList<>();
+        List<PrereqCheck> mChecks = new ArrayList<>();
+
+        private int emit(byte op, int arg) {
+            mOps.add(Byte.valueOf(op));
+            mArgs.add(Integer.valueOf(arg));
+            return mOps.size() - 1;
+        }
+
+        private int addCheck(PrereqCheck check) {
+            mChecks.add(check);
+            return mChecks.size() - 1;
+        }
+
+        void compileList(PrereqList list) {
+            List<Integer> jumps = new ArrayList<>();
+            if (PrereqList.isWhenTLEnabled(list.getWhenTLCriteria())) {
+                // A list that doesn't apply at the character's tech level is satisfied
+                IntegerCriteria whenTL = new IntegerCriteria(list.getWhenTLCriteria());
+                emit(TEST, addCheck((index, exclude) -> !whenTL.matches(index.getTechLevel())));
+                jumps.add(Integer.valueOf(emit(JUMP_IF_TRUE, 0)));
+            }
+            boolean      all      = list.requiresAll();
+            List<Prereq> children = list.getChildren();
+            int          count    = children.size();
+            if (count == 0) {
+                // All of nothing is met, while any of nothing is not
+                emit(all ? SET_TRUE : SET_FALSE, 0);
+            }
+            for (int i = 0; i < count; i++) {
+                Prereq prereq = children.get(i);
+                if (prereq instanceof PrereqList) {
+                    compileList((PrereqList) prereq);
+                } else {
+                    HasPrereq hasPrereq = (HasPrereq) prereq;
+                    emit(hasPrereq.has() ? TEST : TEST_NOT, addCheck(hasPrereq.compile()));
+                }
+                if (i < count - 1) {
+                    jumps.add(Integer.valueOf(emit(all ? JUMP_IF_FALSE : JUMP_IF_TRUE, 0)));
+                }
+            }
+            int end = mOps.size();
+            for (Integer jump : jumps) {
+                mArgs.set(jump.intValue(), Integer.valueOf(end));
+            }
+        }
+
+        /**
+         * Nested lists often end right where their parent would make the same decision, so jumps
+         * are sent straight to wherever the chain of jumps they land on would take them.
+         */
+        void threadJumps() {
+            int count = mOps.size();
+            for (int i = count - 1; i >= 0; i--) {
+                byte op = mOps.get(i).byteValue();
+                if (op == JUMP_IF_TRUE || op == JUMP_IF_FALSE) {
+                    int target = mArgs.get(i).intValue();
+                    while (target < count) {
+                        byte next = mOps.get(target).byteValue();
+                        if (next == op) {
+                            target = mArgs.get(target).intValue();
+                        } else if (next == JUMP_IF_TRUE || next == JUMP_IF_FALSE) {
+                            // The opposite test can't be taken, so skip past it
+                            target++;
+                        } else {
+                            break;
+                        }
+                    }
+                    mArgs.set(i, Integer.valueOf(target));
+                }
+            }
+        }
+    }
+}
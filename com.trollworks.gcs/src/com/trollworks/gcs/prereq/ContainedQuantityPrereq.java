@@ -13,6 +13,9 @@ package com.trollworks.gcs.prereq;
 
 import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.NumericCompareType;
+import com.trollworks.gcs.equipment.Equipment;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
+import com.trollworks.gcs.ui.widget.outline.Row;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Enums;
 import com.trollworks.gcs.utility.xml.XMLReader;
@@ -98,6 +101,28 @@ public class ContainedQuantityPrereq extends HasPrereq {
         mQuantityCompare.save(w, KEY_QUALIFIER);
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        index.addContents(row);
+    }
+
+    @Override
+    PrereqCheck compile() {
+        IntegerCriteria criteria = new IntegerCriteria(mQuantityCompare);
+        return (index, exclude) -> {
+            if (!(exclude instanceof Equipment) || !exclude.canHaveChildren()) {
+                return true;
+            }
+            int quantity = 0;
+            for (Row child : exclude.getChildren()) {
+                if (child instanceof Equipment) {
+                    quantity += ((Equipment) child).getQuantity();
+                }
+            }
+            return criteria.matches(quantity);
+        };
+    }
+
     /** @return The quantity comparison object. */
     public IntegerCriteria getQuantityCompare() {
         return mQuantityCompare;
@@ -13,6 +13,8 @@ package com.trollworks.gcs.prereq;
 
 import com.trollworks.gcs.criteria.NumericCompareType;
 import com.trollworks.gcs.criteria.WeightCriteria;
+import com.trollworks.gcs.equipment.Equipment;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.Fixed6;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Enums;
@@ -101,6 +103,25 @@ public class ContainedWeightPrereq extends HasPrereq {
         mWeightCompare.save(w, KEY_QUALIFIER);
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        index.addContents(row);
+    }
+
+    @Override
+    PrereqCheck compile() {
+        WeightCriteria criteria = new WeightCriteria(mWeightCompare);
+        return (index, exclude) -> {
+            if (!(exclude instanceof Equipment) || !exclude.canHaveChildren()) {
+                return true;
+            }
+            Equipment   equipment = (Equipment) exclude;
+            WeightValue weight    = new WeightValue(equipment.getExtendedWeight(false));
+            weight.subtract(equipment.getAdjustedWeight(false));
+            return criteria.matches(weight);
+        };
+    }
+
     /** @return The weight comparison object. */
     public WeightCriteria getWeightCompare() {
         return mWeightCompare;
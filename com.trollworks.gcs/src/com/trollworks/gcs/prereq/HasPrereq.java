@@ -88,6 +88,12 @@ public abstract class HasPrereq extends Prereq {
         mHas = has;
     }
 
+    /**
+     * @return A check of this prerequisite's criteria, ignoring its has() state. It must not refer
+     *         back to this prerequisite, since it may be modified afterwards.
+     */
+    abstract PrereqCheck compile();
+
     /** @return The text associated with the current has() state. */
     public String hasText() {
         return mHas ? "Has" : "Does not have";
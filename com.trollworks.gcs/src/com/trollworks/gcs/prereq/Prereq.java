@@ -12,6 +12,7 @@
 package com.trollworks.gcs.prereq;
 
 import com.trollworks.gcs.datafile.DataFile;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.json.JsonWriter;
 
 import java.io.IOException;
@@ -77,6 +78,14 @@ public abstract class Prereq {
      */
     public abstract Prereq clone(PrereqList parent);
 
+    /**
+     * Records what this prerequisite looks at.
+     *
+     * @param index The index to record into.
+     * @param row   The row that owns this prerequisite.
+     */
+    abstract void addDependencies(PrereqDependencyIndex index, ListRow row);
+
     /** @param set The nameable keys. */
     public void fillWithNameableKeys(Set<String> set) {
         // Do nothing by default
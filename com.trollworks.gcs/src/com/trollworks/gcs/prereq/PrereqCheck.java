@@ -0,0 +1,26 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.prereq;
+
+import com.trollworks.gcs.ui.widget.outline.ListRow;
+
+/** A single test within a {@link CompiledPrereqList}. */
+@FunctionalInterface
+interface PrereqCheck {
+    /**
+     * @param index   The character to check against.
+     * @param exclude The row the prerequisites belong to, which is never counted as satisfying
+     *                them.
+     * @return Whether the test passes.
+     */
+    boolean satisfied(PrereqIndex index, ListRow exclude);
+}
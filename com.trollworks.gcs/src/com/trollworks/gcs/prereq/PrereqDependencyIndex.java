@@ -0,0 +1,219 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.prereq;
+
+import com.trollworks.gcs.advantage.Advantage;
+import com.trollworks.gcs.character.GURPSCharacter;
+import com.trollworks.gcs.criteria.StringCriteria;
+import com.trollworks.gcs.equipment.Equipment;
+import com.trollworks.gcs.feature.BonusAttributeType;
+import com.trollworks.gcs.skill.Skill;
+import com.trollworks.gcs.spell.Spell;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
+import com.trollworks.gcs.ui.widget.outline.Row;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the things prerequisites look at back to the rows whose prerequisites look at them, so
+ * that when something changes, only the rows that could be affected need to be checked again.
+ * <p>
+ * Names are only indexed when a prerequisite compares for an exact name. Any other kind of name
+ * comparison makes the row depend on every row of that type. The index is therefore never
+ * missing a dependent row, though it may include rows whose prerequisites turn out to be
+ * unaffected.
+ * <p>
+ * Rows must be passed to {@link #update(ListRow)} after their prerequisites are modified, and to
+ * {@link #remove(ListRow)} when they are removed from the character.
+ */
+public class PrereqDependencyIndex {
+    private Dependents                            mAdvantages   = new Dependents();
+    private Dependents                            mSkills       = new Dependents();
+    private Dependents                            mSpells       = new Dependents();
+    private Map<BonusAttributeType, Set<ListRow>> mAttributes   = new EnumMap<>(BonusAttributeType.class);
+    private Set<ListRow>                          mTechLevel    = new HashSet<>();
+    private Set<ListRow>                          mContents     = new HashSet<>();
+    private Map<ListRow, List<Set<ListRow>>>      mRegistration = new HashMap<>();
+
+    /** Creates a new, empty {@link PrereqDependencyIndex}. */
+    public PrereqDependencyIndex() {
+    }
+
+    /** @param character The character whose rows should be indexed. */
+    public PrereqDependencyIndex(GURPSCharacter character) {
+        for (Advantage advantage : character.getAdvantagesIterator(true)) {
+            update(advantage);
+        }
+        for (Skill skill : character.getSkillsIterator()) {
+            update(skill);
+        }
+        for (Spell spell : character.getSpellsIterator()) {
+            update(spell);
+        }
+        for (Equipment equipment : character.getEquipmentIterator()) {
+            update(equipment);
+        }
+        for (Equipment equipment : character.getOtherEquipmentIterator()) {
+            update(equipment);
+        }
+    }
+
+    /**
+     * Indexes the prerequisites of a row, replacing anything previously indexed for it.
+     *
+     * @param row The row to index.
+     */
+    public void update(ListRow row) {
+        remove(row);
+        if (row.hasPrereqs()) {
+            row.getPrereqs().addDependencies(this, row);
+        }
+    }
+
+    /** @param row The row to no longer track. */
+    public void remove(ListRow row) {
+        List<Set<ListRow>> sets = mRegistration.remove(row);
+        if (sets != null) {
+            for (Set<ListRow> set : sets) {
+                set.remove(row);
+            }
+        }
+    }
+
+    /**
+     * @param changed The row that was added, removed or modified. When an advantage, skill or
+     *                spell is renamed, it should also be checked under its old name with one of
+     *                the name-based methods.
+     * @return The rows whose prerequisites may be affected.
+     */
+    public Set<ListRow> getAffectedBy(ListRow changed) {
+        if (changed instanceof Advantage) {
+            return getAffectedByAdvantage(((Advantage) changed).getName());
+        }
+        if (changed instanceof Skill) {
+            return getAffectedBySkill(((Skill) changed).getName());
+        }
+        if (changed instanceof Spell) {
+            return getAffectedBySpell(((Spell) changed).getName());
+        }
+        Set<ListRow> set = new LinkedHashSet<>();
+        if (changed instanceof Equipment) {
+            // The contents of every container holding the equipment have changed
+            for (Row row = changed.getParent(); row != null; row = row.getParent()) {
+                if (mContents.contains(row)) {
+                    set.add((ListRow) row);
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param name The name of the advantage.
+     * @return The rows whose prerequisites may be affected by the advantage.
+     */
+    public Set<ListRow> getAffectedByAdvantage(String name) {
+        return mAdvantages.get(name);
+    }
+
+    /**
+     * @param name The name of the skill.
+     * @return The rows whose prerequisites may be affected by the skill.
+     */
+    public Set<ListRow> getAffectedBySkill(String name) {
+        return mSkills.get(name);
+    }
+
+    /**
+     * @param name The name of the spell.
+     * @return The rows whose prerequisites may be affected by the spell.
+     */
+    public Set<ListRow> getAffectedBySpell(String name) {
+        return mSpells.get(name);
+    }
+
+    /**
+     * @param attribute The attribute.
+     * @return The rows whose prerequisites may be affected by the attribute.
+     */
+    public Set<ListRow> getAffectedBy(BonusAttributeType attribute) {
+        Set<ListRow> set = mAttributes.get(attribute);
+        return set != null ? new LinkedHashSet<>(set) : new LinkedHashSet<>();
+    }
+
+    /** @return The rows whose prerequisites may be affected by the character's tech level. */
+    public Set<ListRow> getAffectedByTechLevel() {
+        return new LinkedHashSet<>(mTechLevel);
+    }
+
+    void addAdvantage(StringCriteria nameCriteria, ListRow row) {
+        register(mAdvantages.getSet(nameCriteria), row);
+    }
+
+    void addSkill(StringCriteria nameCriteria, ListRow row) {
+        register(mSkills.getSet(nameCriteria), row);
+    }
+
+    void addSpell(StringCriteria nameCriteria, ListRow row) {
+        register(mSpells.getSet(nameCriteria), row);
+    }
+
+    void addAttribute(BonusAttributeType attribute, ListRow row) {
+        register(mAttributes.computeIfAbsent(attribute, (k) -> new HashSet<>()), row);
+    }
+
+    void addTechLevel(ListRow row) {
+        register(mTechLevel, row);
+    }
+
+    void addContents(ListRow row) {
+        register(mContents, row);
+    }
+
+    private void register(Set<ListRow> set, ListRow row) {
+        if (set.add(row)) {
+            mRegistration.computeIfAbsent(row, (k) -> new ArrayList<>()).add(set);
+        }
+    }
+
+    private static class Dependents {
+        Map<String, Set<ListRow>> mByName = new HashMap<>();
+        Set<ListRow>              mAny    = new HashSet<>();
+
+        /**
+         * @param nameCriteria The name criteria, or {@code null} if any name applies.
+         * @return The set to add rows depending on names matching the criteria to.
+         */
+        Set<ListRow> getSet(StringCriteria nameCriteria) {
+            if (nameCriteria == null || !nameCriteria.isTypeIs()) {
+                return mAny;
+            }
+            return mByName.computeIfAbsent(PrereqIndex.fold(nameCriteria.getQualifier()), (k) -> new HashSet<>());
+        }
+
+        Set<ListRow> get(String name) {
+            Set<ListRow> set    = new LinkedHashSet<>(mAny);
+            Set<ListRow> byName = mByName.get(PrereqIndex.fold(name));
+            if (byName != null) {
+                set.addAll(byName);
+            }
+            return set;
+        }
+    }
+}
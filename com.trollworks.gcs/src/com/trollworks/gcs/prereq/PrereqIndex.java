@@ -0,0 +1,111 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.prereq;
+
+import com.trollworks.gcs.advantage.Advantage;
+import com.trollworks.gcs.character.GURPSCharacter;
+import com.trollworks.gcs.skill.Skill;
+import com.trollworks.gcs.spell.Spell;
+import com.trollworks.gcs.utility.text.Numbers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a character that prerequisites are checked against, gathered once so that any
+ * number of {@link CompiledPrereqList}s can be evaluated without walking the character's lists
+ * each time. Skills and advantages are also indexed by name.
+ * <p>
+ * The index reflects the rows the character had when it was created, so a new one is needed
+ * after rows are added or removed. Values that may change on their own, such as levels and
+ * attributes, are always read from the character.
+ */
+public final class PrereqIndex {
+    private GURPSCharacter               mCharacter;
+    private int                          mTechLevel;
+    private List<Advantage>              mAdvantages;
+    private Map<String, List<Advantage>> mAdvantagesByName;
+    private List<Skill>                  mSkills;
+    private Map<String, List<Skill>>     mSkillsByName;
+    private List<Spell>                  mSpells;
+
+    /** @param character The character to index. */
+    public PrereqIndex(GURPSCharacter character) {
+        mCharacter = character;
+        mTechLevel = Numbers.extractInteger(character.getProfile().getTechLevel(), 0, false);
+        mAdvantages = new ArrayList<>();
+        mAdvantagesByName = new HashMap<>();
+        for (Advantage advantage : character.getAdvantagesIterator(false)) {
+            mAdvantages.add(advantage);
+            mAdvantagesByName.computeIfAbsent(fold(advantage.getName()), (k) -> new ArrayList<>()).add(advantage);
+        }
+        mSkills = new ArrayList<>();
+        mSkillsByName = new HashMap<>();
+        for (Skill skill : character.getSkillsIterator()) {
+            mSkills.add(skill);
+            mSkillsByName.computeIfAbsent(fold(skill.getName()), (k) -> new ArrayList<>()).add(skill);
+        }
+        mSpells = new ArrayList<>();
+        for (Spell spell : character.getSpellsIterator()) {
+            if (spell.getPoints() > 0) {
+                mSpells.add(spell);
+            }
+        }
+    }
+
+    /** @return The character. */
+    public GURPSCharacter getCharacter() {
+        return mCharacter;
+    }
+
+    /** @return The character's tech level. */
+    public int getTechLevel() {
+        return mTechLevel;
+    }
+
+    /**
+     * @param key The result of {@link #fold(String)} for the name to look for, or {@code null}
+     *            for all of them.
+     * @return The enabled advantages that may match.
+     */
+    List<Advantage> getAdvantages(String key) {
+        return key != null ? mAdvantagesByName.getOrDefault(key, Collections.emptyList()) : mAdvantages;
+    }
+
+    /**
+     * @param key The result of {@link #fold(String)} for the name to look for, or {@code null}
+     *            for all of them.
+     * @return The skills that may match.
+     */
+    List<Skill> getSkills(String key) {
+        return key != null ? mSkillsByName.getOrDefault(key, Collections.emptyList()) : mSkills;
+    }
+
+    /** @return The spells that have points in them. */
+    List<Spell> getSpells() {
+        return mSpells;
+    }
+
+    /**
+     * @param text The text to fold.
+     * @return A key that is the same for any two strings that are equal ignoring case, as defined
+     *         by {@link String#equalsIgnoreCase(String)}.
+     */
+    static String fold(String text) {
+        StringBuilder buffer = new StringBuilder(text.length());
+        text.codePoints().forEach((ch) -> buffer.appendCodePoint(Character.toLowerCase(Character.toUpperCase(ch))));
+        return buffer.toString();
+    }
+}
@@ -13,6 +13,7 @@ package com.trollworks.gcs.prereq;
 
 import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.NumericCompareType;
+import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.units.WeightUnits;
 import com.trollworks.gcs.utility.xml.XMLNodeType;
@@ -226,11 +227,29 @@ public class PrereqList extends Prereq {
         }
     }
 
+    /**
+     * @return A compiled copy of this list, for evaluating it against characters with a {@link
+     *         PrereqIndex}.
+     */
+    public CompiledPrereqList compile() {
+        return new CompiledPrereqList(this);
+    }
+
     @Override
     public Prereq clone(PrereqList parent) {
         return new PrereqList(parent, this);
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        if (isWhenTLEnabled(mWhenTLCriteria)) {
+            index.addTechLevel(row);
+        }
+        for (Prereq prereq : mPrereqs) {
+            prereq.addDependencies(index, row);
+        }
+    }
+
     @Override
     public void fillWithNameableKeys(Set<String> set) {
         for (Prereq prereq : mPrereqs) {
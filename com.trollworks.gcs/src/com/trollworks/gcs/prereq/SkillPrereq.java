@@ -11,8 +11,10 @@
 
 package com.trollworks.gcs.prereq;
 
+import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.StringCompareType;
 import com.trollworks.gcs.criteria.StringCriteria;
+import com.trollworks.gcs.skill.Skill;
 import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.xml.XMLReader;
@@ -111,6 +113,31 @@ public class SkillPrereq extends NameLevelPrereq {
         mSpecializationCriteria.setQualifier(ListRow.nameNameables(map, mSpecializationCriteria.getQualifier()));
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        index.addSkill(getNameCriteria(), row);
+    }
+
+    @Override
+    PrereqCheck compile() {
+        StringCriteria  nameCriteria           = new StringCriteria(getNameCriteria());
+        StringCriteria  specializationCriteria = new StringCriteria(mSpecializationCriteria);
+        IntegerCriteria levelCriteria          = new IntegerCriteria(getLevelCriteria());
+        String          key                    = nameCriteria.isTypeIs() ? PrereqIndex.fold(nameCriteria.getQualifier()) : null;
+        return (index, exclude) -> {
+            String techLevel = exclude instanceof Skill ? ((Skill) exclude).getTechLevel() : null;
+            for (Skill skill : index.getSkills(key)) {
+                if (skill != exclude && nameCriteria.matches(skill.getName()) && specializationCriteria.matches(skill.getSpecialization()) && levelCriteria.matches(skill.getLevel())) {
+                    String otherTL = skill.getTechLevel();
+                    if (techLevel == null || otherTL == null || techLevel.equals(otherTL)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
     /** @return The specialization comparison object. */
     public StringCriteria getSpecializationCriteria() {
         return mSpecializationCriteria;
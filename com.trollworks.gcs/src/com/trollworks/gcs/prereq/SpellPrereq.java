@@ -15,12 +15,14 @@ import com.trollworks.gcs.criteria.IntegerCriteria;
 import com.trollworks.gcs.criteria.NumericCompareType;
 import com.trollworks.gcs.criteria.StringCompareType;
 import com.trollworks.gcs.criteria.StringCriteria;
+import com.trollworks.gcs.spell.Spell;
 import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.xml.XMLNodeType;
 import com.trollworks.gcs.utility.xml.XMLReader;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -176,6 +178,63 @@ public class SpellPrereq extends HasPrereq {
         return mQuantityCriteria;
     }
 
+    @Override
+    void addDependencies(PrereqDependencyIndex index, ListRow row) {
+        // Only a spell's name can be looked up; any other comparison may involve every spell
+        index.addSpell(TAG_NAME.equals(mType) ? mStringCriteria : null, row);
+    }
+
+    @Override
+    PrereqCheck compile() {
+        StringCriteria  criteria = new StringCriteria(mStringCriteria);
+        IntegerCriteria quantity = new IntegerCriteria(mQuantityCriteria);
+        if (TAG_ANY.equals(mType)) {
+            return (index, exclude) -> {
+                int count = 0;
+                for (Spell spell : index.getSpells()) {
+                    if (isCandidate(spell, exclude)) {
+                        count++;
+                    }
+                }
+                return quantity.matches(count);
+            };
+        }
+        if (TAG_COLLEGE_COUNT.equals(mType)) {
+            return (index, exclude) -> {
+                Set<String> colleges = new HashSet<>();
+                for (Spell spell : index.getSpells()) {
+                    if (isCandidate(spell, exclude)) {
+                        colleges.add(spell.getCollege());
+                    }
+                }
+                return quantity.matches(colleges.size());
+            };
+        }
+        boolean college = TAG_COLLEGE.equals(mType);
+        return (index, exclude) -> {
+            int count = 0;
+            for (Spell spell : index.getSpells()) {
+                if (isCandidate(spell, exclude) && criteria.matches(college ? spell.getCollege() : spell.getName())) {
+                    count++;
+                }
+            }
+            return quantity.matches(count);
+        };
+    }
+
+    private static boolean isCandidate(Spell spell, ListRow exclude) {
+        if (spell == exclude) {
+            return false;
+        }
+        if (exclude instanceof Spell) {
+            // Only spells from the same tech level count towards each other
+            String techLevel = ((Spell) exclude).getTechLevel();
+            String otherTL   = spell.getTechLevel();
+            return techLevel == null || otherTL == null || techLevel.equals(otherTL);
+        }
+        return true;
+    }
+
     @Override
     public void fillWithNameableKeys(Set<String> set) {
         if (!Objects.equals(mType, TAG_COLLEGE_COUNT)) {
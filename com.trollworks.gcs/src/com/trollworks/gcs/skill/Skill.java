@@ -17,6 +17,7 @@ import com.trollworks.gcs.datafile.ListFile;
 import com.trollworks.gcs.datafile.LoadState;
 import com.trollworks.gcs.ui.widget.outline.ListRow;
 import com.trollworks.gcs.ui.widget.outline.Row;
+import com.trollworks.gcs.utility.Dice;
 import com.trollworks.gcs.utility.SaveType;
 import com.trollworks.gcs.utility.json.JsonWriter;
 import com.trollworks.gcs.utility.text.Numbers;
@@ -351,6 +352,12 @@ public class Skill extends ListRow {
         return mLevel.getLevel();
     }
 
+    /** @return The chance of success when rolling 3d6 against the level. */
+    public double getSuccessProbability() {
+        int level = getLevel();
+        return level == Integer.MIN_VALUE ? 0 : Dice.getSuccessProbability(level);
+    }
+
     /** @return The relative level. */
     public int getRelativeLevel() {
         return mLevel.getRelativeLevel();
@@ -0,0 +1,165 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.ui.widget.outline;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable set of categories, held as a sorted array and iterated in the same order a {@link
+ * java.util.TreeSet} would use. Sets are interned, so the many rows that share the same
+ * categories also share a single instance.
+ */
+public final class CategorySet extends AbstractSet<String> {
+    /** The empty set of categories. */
+    public static final  CategorySet                             EMPTY          = new CategorySet(new String[0]);
+    private static final int                                     MAX_CACHE_SIZE = 4096;
+    private static final ConcurrentMap<CategorySet, CategorySet> CACHE          = new ConcurrentHashMap<>();
+    private final        String[]                                mCategories;
+    private              int                                     mHash;
+
+    private CategorySet(String[] categories) {
+        mCategories = categories;
+    }
+
+    /**
+     * @param categories The categories. Duplicates are ignored.
+     * @return The set of categories.
+     */
+    public static CategorySet of(String... categories) {
+        return create(categories.clone());
+    }
+
+    /**
+     * @param categories The categories. Duplicates are ignored.
+     * @return The set of categories.
+     */
+    public static CategorySet of(Collection<String> categories) {
+        if (categories instanceof CategorySet) {
+            return (CategorySet) categories;
+        }
+        return create(categories.toArray(new String[0]));
+    }
+
+    /**
+     * @param categories The categories to add.
+     * @return The set of categories containing both those in this set and the ones passed in.
+     */
+    public CategorySet union(Collection<String> categories) {
+        if (categories.isEmpty() || containsAll(categories)) {
+            return this;
+        }
+        if (mCategories.length == 0) {
+            return of(categories);
+        }
+        String[] combined = Arrays.copyOf(mCategories, mCategories.length + categories.size());
+        int      i        = mCategories.length;
+        for (String category : categories) {
+            combined[i++] = category;
+        }
+        return create(combined);
+    }
+
+    private static CategorySet create(String[] categories) {
+        if (categories.length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(categories);
+        int count = 1;
+        for (int i = 1; i < categories.length; i++) {
+            if (!categories[i].equals(categories[count - 1])) {
+                categories[count++] = categories[i];
+            }
+        }
+        CategorySet set      = new CategorySet(count == categories.length ? categories : Arrays.copyOf(categories, count));
+        CategorySet existing = CACHE.get(set);
+        if (existing != null) {
+            return existing;
+        }
+        if (CACHE.size() < MAX_CACHE_SIZE) {
+            existing = CACHE.putIfAbsent(set, set);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return obj instanceof String && Arrays.binarySearch(mCategories, obj) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return mCategories.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mCategories.length == 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int mIndex;
+
+            @Override
+            public boolean hasNext() {
+                return mIndex < mCategories.length;
+            }
+
+            @Override
+            public String next() {
+                if (mIndex >= mCategories.length) {
+                    throw new NoSuchElementException();
+                }
+                return mCategories[mIndex++];
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return mCategories.clone();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof CategorySet) {
+            return Arrays.equals(mCategories, ((CategorySet) obj).mCategories);
+        }
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // Matches the Set contract, so equal sets of other types produce the same hash
+        int hash = mHash;
+        if (hash == 0) {
+            for (String category : mCategories) {
+                hash += category.hashCode();
+            }
+            mHash = hash;
+        }
+        return hash;
+    }
+}
@@ -13,6 +13,7 @@ package com.trollworks.gcs.ui.widget.outline;
 
 import com.trollworks.gcs.character.GURPSCharacter;
 import com.trollworks.gcs.datafile.DataFile;
+import com.trollworks.gcs.datafile.ListFile;
 import com.trollworks.gcs.datafile.LoadState;
 import com.trollworks.gcs.feature.AttributeBonus;
 import com.trollworks.gcs.feature.ContainedWeightReduction;
@@ -39,14 +40,11 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.UUID;
 
 /** A common row super-class for the model. */
@@ -62,6 +60,7 @@ public abstract class ListRow extends Row {
     private static final String             KEY_DEFAULTS      = "defaults";
     private static final String             KEY_CHILDREN      = "children";
     private static final String             KEY_PREREQS       = "prereqs";
+    private static final PrereqList         EMPTY_PREREQS     = new PrereqList(null, true);
     /** The data file the row is associated with. */
     protected            DataFile           mDataFile;
     private              UUID               mID;
@@ -71,7 +70,7 @@ public abstract class ListRow extends Row {
     private              PrereqList         mPrereqList;
     private              List<SkillDefault> mDefaults;
     private              String             mNotes;
-    private              TreeSet<String>    mCategories;
+    private              CategorySet        mCategories;
 
     public static void saveList(JsonWriter w, String key, List<?> list, SaveType saveType) throws IOException {
         FilteredList<ListRow> rows = new FilteredList<>(list, ListRow.class, true);
@@ -136,13 +135,9 @@ public abstract class ListRow extends Row {
         return buffer.toString();
     }
 
-    public static Set<String> createCategoriesList(String categories) {
-        return new TreeSet<>(createList(categories));
-    }
-
     // This is the decompose method that works with the compose method (getCategoriesAsString())
-    private static Collection<String> createList(String categories) {
-        return Arrays.asList(categories.split(","));
+    public static Set<String> createCategoriesList(String categories) {
+        return CategorySet.of(categories.split(","));
     }
 
     /**
@@ -156,11 +151,12 @@ public abstract class ListRow extends Row {
         setOpen(isContainer);
         mDataFile = dataFile;
         mID = UUID.randomUUID();
-        mFeatures = new ArrayList<>();
-        mPrereqList = new PrereqList(null, true);
-        mDefaults = new ArrayList<>();
+        // The containers below are shared, empty sentinels until something is added to them
+        mFeatures = Collections.emptyList();
+        mPrereqList = EMPTY_PREREQS;
+        mDefaults = Collections.emptyList();
         mNotes = "";
-        mCategories = new TreeSet<>();
+        mCategories = CategorySet.EMPTY;
     }
 
     /**
@@ -174,14 +170,15 @@ public abstract class ListRow extends Row {
         setOpen(rowToClone.isOpen());
         mNotes = rowToClone.mNotes;
         for (Feature feature : rowToClone.mFeatures) {
-            mFeatures.add(feature.cloneFeature());
+            addFeature(feature.cloneFeature());
+        }
+        if (rowToClone.mPrereqList != EMPTY_PREREQS) {
+            mPrereqList = new PrereqList(null, rowToClone.mPrereqList);
         }
-        mPrereqList = new PrereqList(null, rowToClone.getPrereqs());
-        mDefaults = new ArrayList<>();
         for (SkillDefault skillDefault : rowToClone.mDefaults) {
-            mDefaults.add(new SkillDefault(skillDefault));
+            addDefault(new SkillDefault(skillDefault));
         }
-        mCategories = new TreeSet<>(rowToClone.mCategories);
+        setCategories(rowToClone.mCategories);
         try {
             MessageDigest         digest = MessageDigest.getInstance("SHA3-256");
             StringBuilder         buffer = new StringBuilder();
@@ -267,39 +264,41 @@ public abstract class ListRow extends Row {
             if (reader.next() == XMLNodeType.START_TAG) {
                 String name = reader.getName();
                 if (AttributeBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new AttributeBonus(reader));
+                    addFeature(new AttributeBonus(reader));
                 } else if (DRBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new DRBonus(reader));
+                    addFeature(new DRBonus(reader));
                 } else if (ReactionBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new ReactionBonus(reader));
+                    addFeature(new ReactionBonus(reader));
                 } else if (SkillBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new SkillBonus(reader));
+                    addFeature(new SkillBonus(reader));
                 } else if (SpellBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new SpellBonus(reader));
+                    addFeature(new SpellBonus(reader));
                 } else if (WeaponBonus.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new WeaponBonus(reader));
+                    addFeature(new WeaponBonus(reader));
                 } else if (CostReduction.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new CostReduction(reader));
+                    addFeature(new CostReduction(reader));
                 } else if (ContainedWeightReduction.TAG_ROOT.equals(name)) {
-                    mFeatures.add(new ContainedWeightReduction(reader));
+                    addFeature(new ContainedWeightReduction(reader));
                 } else if (PrereqList.TAG_ROOT.equals(name)) {
                     mPrereqList = new PrereqList(null, mDataFile.defaultWeightUnits(), reader);
                 } else if (!(this instanceof Technique) && SkillDefault.TAG_ROOT.equals(name)) {
-                    mDefaults.add(new SkillDefault(reader));
+                    addDefault(new SkillDefault(reader));
                 } else if (TAG_NOTES.equals(name)) {
                     mNotes = reader.readText();
                 } else if (TAG_CATEGORIES.equals(name)) {
-                    String subMarker = reader.getMarker();
+                    List<String> categories = new ArrayList<>();
+                    String       subMarker  = reader.getMarker();
                     do {
                         if (reader.next() == XMLNodeType.START_TAG) {
                             name = reader.getName();
                             if (TAG_CATEGORY.equals(name)) {
-                                mCategories.add(reader.readText());
+                                categories.add(reader.readText());
                             } else {
                                 reader.skipTag(name);
                             }
                         }
                     } while (reader.withinMarker(subMarker));
+                    setCategories(mCategories.union(categories));
                 } else {
                     loadSubElement(reader, state);
                 }
@@ -315,10 +314,10 @@ public abstract class ListRow extends Row {
      */
     protected void prepareForLoad(LoadState state) {
         mNotes = "";
-        mFeatures.clear();
-        mDefaults.clear();
-        mPrereqList = new PrereqList(null, true);
-        mCategories.clear();
+        mFeatures = Collections.emptyList();
+        mDefaults = Collections.emptyList();
+        mPrereqList = EMPTY_PREREQS;
+        setCategories(CategorySet.EMPTY);
     }
 
     /**
@@ -437,13 +436,69 @@ public abstract class ListRow extends Row {
         return Collections.unmodifiableList(mFeatures);
     }
 
+    private void addFeature(Feature feature) {
+        if (mFeatures.isEmpty()) {
+            mFeatures = new ArrayList<>();
+        }
+        mFeatures.add(feature);
+    }
+
     /** @return The categories this data row belongs to. */
     public Set<String> getCategories() {
-        return Collections.unmodifiableSet(mCategories);
+        return mCategories;
+    }
+
+    private void setCategories(CategorySet categories) {
+        if (mCategories != categories) {
+            mCategories = categories;
+            invalidateCategories();
+        }
+    }
+
+    private void invalidateCategories() {
+        if (mDataFile instanceof ListFile) {
+            ((ListFile) mDataFile).invalidateCategories();
+        }
+    }
+
+    @Override
+    public boolean insertChild(int index, Row row) {
+        if (super.insertChild(index, row)) {
+            invalidateCategories();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean addChild(Row row) {
+        if (super.addChild(row)) {
+            invalidateCategories();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeChild(Row row) {
+        if (super.removeChild(row)) {
+            invalidateCategories();
+            return true;
+        }
+        return false;
+    }
+
+    /** @return Whether this data row has any prerequisites. */
+    public boolean hasPrereqs() {
+        return !mPrereqList.isEmpty();
     }
 
     /** @return The prerequisites needed by this data row. */
     public PrereqList getPrereqs() {
+        if (mPrereqList == EMPTY_PREREQS) {
+            // The caller may modify the list, so it can no longer be the shared one
+            mPrereqList = new PrereqList(null, true);
+        }
         return mPrereqList;
     }
 
@@ -452,6 +507,13 @@ public abstract class ListRow extends Row {
         return Collections.unmodifiableList(mDefaults);
     }
 
+    private void addDefault(SkillDefault skillDefault) {
+        if (mDefaults.isEmpty()) {
+            mDefaults = new ArrayList<>();
+        }
+        mDefaults.add(skillDefault);
+    }
+
     /**
      * @param text          The text to search for.
      * @param lowerCaseOnly The passed in text is all lowercase.
@@ -19,6 +19,7 @@ import java.util.Set;
 
 public class OutlineModel {
     private ArrayList<Row> mRows = new ArrayList<>();
+    private int            mModificationCount;
 
     /**
      * Adds the specified row.
@@ -46,11 +47,13 @@ public class OutlineModel {
             row.setOwner(this);
         }
         mRows.addAll(index, list);
+        mModificationCount++;
     }
 
     private void addChildren(Row row) {
         List<Row> list = collectRowsAndSetOwner(new ArrayList<>(), row, true);
         mRows.addAll(getIndexOfRow(row) + 1, list);
+        mModificationCount++;
     }
 
     /**
@@ -129,6 +132,7 @@ public class OutlineModel {
             mRows.remove(indexes[i]);
             rows[i].setOwner(null);
         }
+        mModificationCount++;
     }
 
     /** @return The rows contained by the model. */
@@ -136,6 +140,14 @@ public class OutlineModel {
         return mRows;
     }
 
+    /**
+     * @return A count that changes each time rows are added to or removed from the model through
+     *         its methods.
+     */
+    public int getModificationCount() {
+        return mModificationCount;
+    }
+
     /** @return The total number of rows present in the outline. */
     public int getRowCount() {
         return mRows.size();
@@ -0,0 +1,111 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Base64;
+
+/**
+ * A {@link Writer} that decodes the MIME Base64 text written to it, a chunk at a time. The result
+ * is the same as passing all of the text to {@link Base64#getMimeDecoder()} at once, but the text
+ * itself is never held in memory. As with the MIME decoder, characters outside of the Base64
+ * alphabet are ignored.
+ */
+public class Base64DecodingWriter extends Writer {
+    private static final int                   CHUNK = 4096;
+    private              ByteArrayOutputStream mOut  = new ByteArrayOutputStream();
+    private              byte[]                mEncoded;
+    private              byte[]                mDecoded;
+    private              int                   mCount;
+    private              boolean               mPadded;
+    private              boolean               mClosed;
+
+    /** Creates a new {@link Base64DecodingWriter}. */
+    public Base64DecodingWriter() {
+        mEncoded = new byte[CHUNK];
+        mDecoded = new byte[CHUNK / 4 * 3];
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        if (mClosed) {
+            throw new IOException("closed");
+        }
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char ch = buffer[i];
+            if (ch == '=') {
+                // Padding can only appear at the end, so anything from here on is decoded at once
+                // when closed, which lets the decoder validate it
+                mPadded = true;
+            } else if (!isBase64(ch)) {
+                continue;
+            }
+            if (mCount == mEncoded.length) {
+                if (mPadded) {
+                    byte[] bigger = new byte[mCount * 2];
+                    System.arraycopy(mEncoded, 0, bigger, 0, mCount);
+                    mEncoded = bigger;
+                } else {
+                    decodeChunk();
+                }
+            }
+            mEncoded[mCount++] = (byte) ch;
+        }
+    }
+
+    private void decodeChunk() {
+        // The chunk size is a multiple of 4 and holds no padding, so it decodes exactly
+        int count = Base64.getDecoder().decode(mEncoded, mDecoded);
+        mOut.write(mDecoded, 0, count);
+        mCount = 0;
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to do, since partial units can't be decoded until more text arrives.
+    }
+
+    /**
+     * Decodes any remaining text.
+     *
+     * @throws IllegalArgumentException if the text was not valid Base64.
+     */
+    @Override
+    public void close() {
+        if (!mClosed) {
+            mClosed = true;
+            byte[] remaining = new byte[mCount];
+            System.arraycopy(mEncoded, 0, remaining, 0, mCount);
+            mOut.writeBytes(Base64.getDecoder().decode(remaining));
+            mEncoded = null;
+            mDecoded = null;
+        }
+    }
+
+    /**
+     * Closes this {@link Base64DecodingWriter}, if it isn't already, and returns the decoded data.
+     *
+     * @return The decoded data.
+     * @throws IllegalArgumentException if the text was not valid Base64.
+     */
+    public byte[] toByteArray() {
+        close();
+        return mOut.toByteArray();
+    }
+
+    private static boolean isBase64(char ch) {
+        return ch >= 'A' && ch <= 'Z' || ch >= 'a' && ch <= 'z' || ch >= '0' && ch <= '9' || ch == '+' || ch == '/';
+    }
+}
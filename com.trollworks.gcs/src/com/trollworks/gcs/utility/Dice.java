@@ -12,16 +12,19 @@
 package com.trollworks.gcs.utility;
 
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /** Simulates dice. */
 public class Dice implements Cloneable {
-    private static final Random RANDOM = new Random();
-    private              int    mCount;
-    private              int    mSides;
-    private              int    mModifier;
-    private              int    mMultiplier;
-    private              int    mAltCount;
-    private              int    mAltModifier;
+    private static final int                         MAX_CACHE_SIZE = 256;
+    private static final ConcurrentMap<String, Dice> CACHE          = new ConcurrentHashMap<>();
+    private static final DiceDistribution            SUCCESS_ROLL   = new DiceDistribution(3, 6, 0, 1);
+    private              int                         mCount;
+    private              int                         mSides;
+    private              int                         mModifier;
+    private              int                         mMultiplier;
 
     /** Creates a new 1d6 dice object. */
     public Dice() {
@@ -34,32 +37,44 @@ public class Dice implements Cloneable {
      * @param text The text to create a {@link Dice} object from.
      */
     public Dice(String text) {
-        StringBuilder buffer = new StringBuilder(text.trim().toLowerCase());
-        mCount = extractValue(buffer);
-        char ch = nextChar(buffer);
+        Dice cached = CACHE.get(text);
+        if (cached != null) {
+            copyFrom(cached);
+            return;
+        }
+        parse(text);
+        if (CACHE.size() < MAX_CACHE_SIZE) {
+            CACHE.putIfAbsent(text, clone());
+        }
+    }
+
+    private void parse(String text) {
+        Parser parser = new Parser(text);
+        mCount = parser.extractValue();
+        char ch = parser.nextChar();
         if (ch == 'd') {
-            buffer.deleteCharAt(0);
-            mSides = extractValue(buffer);
+            parser.mPos++;
+            mSides = parser.extractValue();
             if (mSides == 0) {
                 mSides = 6;
             }
             if (mCount < 1) {
                 mCount = 1;
             }
-            ch = nextChar(buffer);
+            ch = parser.nextChar();
         }
         if (ch == '+' || ch == '-') {
             boolean negative = ch == '-';
-            buffer.deleteCharAt(0);
-            mModifier = extractValue(buffer);
+            parser.mPos++;
+            mModifier = parser.extractValue();
             if (negative) {
                 mModifier = -mModifier;
             }
-            ch = nextChar(buffer);
+            ch = parser.nextChar();
         }
         if (ch == 'x') {
-            buffer.deleteCharAt(0);
-            mMultiplier = extractValue(buffer);
+            parser.mPos++;
+            mMultiplier = parser.extractValue();
         }
         if (mMultiplier == 0) {
             mMultiplier = 1;
@@ -70,6 +85,13 @@ public class Dice implements Cloneable {
         }
     }
 
+    private void copyFrom(Dice other) {
+        mCount = other.mCount;
+        mSides = other.mSides;
+        mModifier = other.mModifier;
+        mMultiplier = other.mMultiplier;
+    }
+
     /**
      * @param text The text containing a dice specification.
      * @return A 2 element array of integers with the first element containing the starting index of
@@ -141,25 +163,6 @@ public class Dice implements Cloneable {
         return null;
     }
 
-    private static char nextChar(StringBuilder buffer) {
-        return buffer.isEmpty() ? 0 : buffer.charAt(0);
-    }
-
-    private static int extractValue(StringBuilder buffer) {
-        int value = 0;
-        while (!buffer.isEmpty()) {
-            char ch = buffer.charAt(0);
-            if (ch >= '0' && ch <= '9') {
-                value *= 10;
-                value += ch - '0';
-            } else if (ch != ' ') {
-                break;
-            }
-            buffer.deleteCharAt(0);
-        }
-        return value;
-    }
-
     /**
      * Creates a new d6 dice object.
      *
@@ -256,9 +259,14 @@ public class Dice implements Cloneable {
         return mMultiplier;
     }
 
-    /** @return The result of rolling the dice. */
+    /**
+     * Rolls the dice using the calling thread's own random number generator, so concurrent callers
+     * do not contend with one another.
+     *
+     * @return The result of rolling the dice.
+     */
     public int roll(boolean convertModifiersToExtraDice) {
-        return roll(RANDOM, convertModifiersToExtraDice);
+        return roll(ThreadLocalRandom.current(), convertModifiersToExtraDice);
     }
 
     /**
@@ -266,14 +274,71 @@ public class Dice implements Cloneable {
      * @return The result of rolling the dice.
      */
     public int roll(Random randomizer, boolean convertModifiersToExtraDice) {
-        int result = 0;
-        updateAlt(convertModifiersToExtraDice);
+        long alt      = convertModifiers(convertModifiersToExtraDice);
+        int  count    = (int) (alt >> 32);
+        int  modifier = (int) alt;
+        int  result   = 0;
         if (mSides > 0) {
-            for (int i = 0; i < mAltCount; i++) {
+            for (int i = 0; i < count; i++) {
                 result += 1 + randomizer.nextInt(mSides);
             }
         }
-        return (result + mAltModifier) * mMultiplier;
+        return (result + modifier) * mMultiplier;
+    }
+
+    /**
+     * Rolls the dice repeatedly using the calling thread's own random number generator.
+     *
+     * @param n       The number of times to roll.
+     * @param results The array to place the results into, which must have room for at least
+     *                {@code n} values.
+     */
+    public void roll(int n, int[] results, boolean convertModifiersToExtraDice) {
+        roll(ThreadLocalRandom.current(), n, results, convertModifiersToExtraDice);
+    }
+
+    /**
+     * Rolls the dice repeatedly. This is equivalent to calling {@link #roll(Random, boolean)}
+     * {@code n} times, but only works out the dice to roll once.
+     *
+     * @param randomizer A {@link Random} object to use.
+     * @param n          The number of times to roll.
+     * @param results    The array to place the results into, which must have room for at least
+     *                   {@code n} values.
+     */
+    public void roll(Random randomizer, int n, int[] results, boolean convertModifiersToExtraDice) {
+        long alt      = convertModifiers(convertModifiersToExtraDice);
+        int  count    = mSides > 0 ? (int) (alt >> 32) : 0;
+        int  modifier = (int) alt;
+        int  sides    = mSides;
+        for (int i = 0; i < n; i++) {
+            int result = modifier + count;
+            for (int j = 0; j < count; j++) {
+                result += randomizer.nextInt(sides);
+            }
+            results[i] = result * mMultiplier;
+        }
+    }
+
+    /**
+     * @param convertModifiersToExtraDice Whether to convert modifiers to extra dice first, as
+     *                                    {@link #roll(boolean)} does.
+     * @return The exact distribution of the results of rolling the dice.
+     */
+    public DiceDistribution getDistribution(boolean convertModifiersToExtraDice) {
+        long alt = convertModifiers(convertModifiersToExtraDice);
+        return new DiceDistribution((int) (alt >> 32), mSides, (int) alt, mMultiplier);
+    }
+
+    /**
+     * Determines the chance of success for a roll of 3d6 against a level, honoring the rule that a
+     * roll of 3 or 4 always succeeds and a roll of 17 or 18 always fails.
+     *
+     * @param level The effective level being rolled against.
+     * @return The probability of success.
+     */
+    public static double getSuccessProbability(int level) {
+        return SUCCESS_ROLL.getProbabilityAtMost(Math.min(Math.max(level, 4), 16));
     }
 
     public String toString() {
@@ -281,20 +346,22 @@ public class Dice implements Cloneable {
     }
 
     public String toString(boolean convertModifiersToExtraDice) {
-        StringBuilder buffer = new StringBuilder();
-        updateAlt(convertModifiersToExtraDice);
-        if (mAltCount > 0 && mSides > 0) {
-            buffer.append(mAltCount);
+        long          alt      = convertModifiers(convertModifiersToExtraDice);
+        int           count    = (int) (alt >> 32);
+        int           modifier = (int) alt;
+        StringBuilder buffer   = new StringBuilder();
+        if (count > 0 && mSides > 0) {
+            buffer.append(count);
             buffer.append('d');
             if (mSides != 6) {
                 buffer.append(mSides);
             }
         }
-        if (mAltModifier > 0) {
+        if (modifier > 0) {
             buffer.append('+');
-            buffer.append(mAltModifier);
-        } else if (mAltModifier < 0) {
-            buffer.append(mAltModifier);
+            buffer.append(modifier);
+        } else if (modifier < 0) {
+            buffer.append(modifier);
         }
         if (mMultiplier != 1) {
             buffer.append('x');
@@ -306,28 +373,33 @@ public class Dice implements Cloneable {
         return buffer.toString();
     }
 
-    private void updateAlt(boolean convertModifiersToExtraDice) {
-        mAltCount = mCount;
-        mAltModifier = mModifier;
+    /**
+     * @return The dice count in the upper 32 bits and the modifier in the lower 32 bits. Returned
+     *         this way, rather than stored, so that using the dice doesn't write to shared state.
+     */
+    private long convertModifiers(boolean convertModifiersToExtraDice) {
+        int count    = mCount;
+        int modifier = mModifier;
         if (convertModifiersToExtraDice && mSides > 0) {
             int average = (mSides + 1) / 2;
             if ((mSides & 1) == 1) {
                 // Odd number of sides, so average is a whole number
-                mAltCount += mAltModifier / average;
-                mAltModifier %= average;
+                count += modifier / average;
+                modifier %= average;
             } else {
                 // Even number of sides, so average has an extra half, which means we alternate
-                while (mAltModifier > average) {
-                    if (mAltModifier > 2 * average) {
-                        mAltModifier -= 2 * average + 1;
-                        mAltCount += 2;
+                while (modifier > average) {
+                    if (modifier > 2 * average) {
+                        modifier -= 2 * average + 1;
+                        count += 2;
                     } else {
-                        mAltModifier -= average + 1;
-                        mAltCount++;
+                        modifier -= average + 1;
+                        count++;
                     }
                 }
             }
         }
+        return ((long) count << 32) | (modifier & 0xFFFFFFFFL);
     }
 
     @Override
@@ -358,4 +430,41 @@ public class Dice implements Cloneable {
     public static double getDicePoolProbability(int count, int sides, int target) {
         return 1 - Math.pow(1 - (1 + sides - target) / (double) sides, count);
     }
+
+    /** Tracks the position within the text being parsed, which is trimmed of whitespace. */
+    private static final class Parser {
+        private String mText;
+        private int    mEnd;
+        private int    mPos;
+
+        Parser(String text) {
+            mText = text;
+            mEnd = text.length();
+            while (mEnd > 0 && text.charAt(mEnd - 1) <= ' ') {
+                mEnd--;
+            }
+            while (mPos < mEnd && text.charAt(mPos) <= ' ') {
+                mPos++;
+            }
+        }
+
+        char nextChar() {
+            return mPos < mEnd ? Character.toLowerCase(mText.charAt(mPos)) : 0;
+        }
+
+        int extractValue() {
+            int value = 0;
+            while (mPos < mEnd) {
+                char ch = mText.charAt(mPos);
+                if (ch >= '0' && ch <= '9') {
+                    value *= 10;
+                    value += ch - '0';
+                } else if (ch != ' ') {
+                    break;
+                }
+                mPos++;
+            }
+            return value;
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.utility;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The exact probability distribution of the results of a {@link Dice} roll. The distribution of
+ * the sum of the dice is computed once per distinct die count and sides and then shared, so
+ * obtaining one for a new modifier or multiplier is cheap.
+ */
+public class DiceDistribution {
+    private static final int                       MAX_CACHE_SIZE = 1024;
+    private static final ConcurrentMap<Long, Sums> CACHE          = new ConcurrentHashMap<>();
+    private              Sums                      mSums;
+    private              int                       mModifier;
+    private              int                       mMultiplier;
+
+    /**
+     * Creates a new {@link DiceDistribution}.
+     *
+     * @param count      The number of dice.
+     * @param sides      The number of sides on each die.
+     * @param modifier   The bonus or penalty to the roll.
+     * @param multiplier A multiplier for the roll.
+     */
+    public DiceDistribution(int count, int sides, int modifier, int multiplier) {
+        mSums = getSums(Math.max(count, 0), Math.max(sides, 0));
+        mModifier = modifier;
+        mMultiplier = multiplier;
+    }
+
+    private static Sums getSums(int count, int sides) {
+        if (count == 0 || sides == 0) {
+            count = 0;
+            sides = 0;
+        }
+        Long key  = Long.valueOf(((long) count << 32) | sides);
+        Sums sums = CACHE.get(key);
+        if (sums == null) {
+            sums = new Sums(count, sides);
+            if (CACHE.size() < MAX_CACHE_SIZE) {
+                CACHE.putIfAbsent(key, sums);
+            }
+        }
+        return sums;
+    }
+
+    /** @return The lowest possible result. */
+    public int getMinimum() {
+        return Math.min(valueOf(mSums.mMin), valueOf(mSums.mMin + mSums.mPMF.length - 1));
+    }
+
+    /** @return The highest possible result. */
+    public int getMaximum() {
+        return Math.max(valueOf(mSums.mMin), valueOf(mSums.mMin + mSums.mPMF.length - 1));
+    }
+
+    /** @return The expected (mean) result. */
+    public double getMean() {
+        return (mSums.mMean + mModifier) * mMultiplier;
+    }
+
+    /**
+     * @param value The result to check.
+     * @return The probability of rolling exactly the value.
+     */
+    public double getProbability(int value) {
+        if (mMultiplier == 0) {
+            return value == 0 ? 1 : 0;
+        }
+        if (value % mMultiplier != 0) {
+            return 0;
+        }
+        return mSums.pmf((long) (value / mMultiplier) - mModifier);
+    }
+
+    /**
+     * @param value The result to check.
+     * @return The probability of rolling the value or less.
+     */
+    public double getProbabilityAtMost(int value) {
+        if (mMultiplier == 0) {
+            return value >= 0 ? 1 : 0;
+        }
+        if (mMultiplier > 0) {
+            return mSums.cdf((long) Math.floorDiv(value, mMultiplier) - mModifier);
+        }
+        // A negative multiplier reverses the order of the results
+        return 1 - mSums.cdf(-(long) Math.floorDiv(value, -mMultiplier) - mModifier - 1);
+    }
+
+    /**
+     * @param value The result to check.
+     * @return The probability of rolling the value or more.
+     */
+    public double getProbabilityAtLeast(int value) {
+        return value == Integer.MIN_VALUE ? 1 : 1 - getProbabilityAtMost(value - 1);
+    }
+
+    private int valueOf(int sum) {
+        return (sum + mModifier) * mMultiplier;
+    }
+
+    /** The distribution of the unmodified sum of a number of identical dice. */
+    private static final class Sums {
+        private int      mMin;
+        private double   mMean;
+        private double[] mPMF;
+        private double[] mCDF;
+
+        Sums(int count, int sides) {
+            mMin = count;
+            mMean = count * (sides + 1) / 2.0;
+            double[] pmf = {1};
+            if (sides > 0) {
+                // Convolve one die at a time, using a sliding window over the previous
+                // distribution so each step is linear in the number of possible sums
+                double face = 1.0 / sides;
+                for (int n = 1; n <= count; n++) {
+                    double[] next   = new double[n * (sides - 1) + 1];
+                    double   window = 0;
+                    for (int i = 0; i < next.length; i++) {
+                        if (i < pmf.length) {
+                            window += pmf[i];
+                        }
+                        if (i - sides >= 0) {
+                            window -= pmf[i - sides];
+                        }
+                        next[i] = window * face;
+                    }
+                    pmf = next;
+                }
+            }
+            mPMF = pmf;
+            mCDF = new double[pmf.length];
+            double total = 0;
+            for (int i = 0; i < pmf.length; i++) {
+                total += pmf[i];
+                mCDF[i] = Math.min(total, 1);
+            }
+            mCDF[pmf.length - 1] = 1;
+        }
+
+        double pmf(long sum) {
+            long index = sum - mMin;
+            return index >= 0 && index < mPMF.length ? mPMF[(int) index] : 0;
+        }
+
+        double cdf(long sum) {
+            long index = sum - mMin;
+            if (index < 0) {
+                return 0;
+            }
+            return index < mCDF.length ? mCDF[(int) index] : 1;
+        }
+    }
+}
@@ -18,14 +18,43 @@ import java.math.BigInteger;
 // Fixed6 holds a fixed-point value that contains up to 6 decimal places. Values are truncated, not
 // rounded.
 public class Fixed6 implements Comparable<Fixed6> {
-    public static final  Fixed6     ZERO       = new Fixed6(0);
-    public static final  Fixed6     ONE        = new Fixed6(1);
-    public static final  Fixed6     MIN        = new Fixed6(Long.MAX_VALUE, true);
-    public static final  Fixed6     MAX        = new Fixed6(Long.MIN_VALUE, true);
-    private static final long       FACTOR     = 1000000;
-    public static final  BigInteger BIG_FACTOR = BigInteger.valueOf(FACTOR);
+    public static final  Fixed6     ZERO                  = new Fixed6(0);
+    public static final  Fixed6     ONE                   = new Fixed6(1);
+    public static final  Fixed6     NEG_ONE               = new Fixed6(-1);
+    public static final  Fixed6     HUNDRED               = new Fixed6(100);
+    public static final  Fixed6     MIN                   = new Fixed6(Long.MAX_VALUE, true);
+    public static final  Fixed6     MAX                   = new Fixed6(Long.MIN_VALUE, true);
+    private static final long       FACTOR                = 1000000;
+    public static final  BigInteger BIG_FACTOR            = BigInteger.valueOf(FACTOR);
+    private static final long       MAX_UNSCALED_DIVIDEND = Long.MAX_VALUE / FACTOR;
+    private static final int        CACHE_MAX             = 100;
+    private static final Fixed6[]   CACHE                 = new Fixed6[CACHE_MAX + 1];
     private              long       mRawValue;
 
+    static {
+        CACHE[0] = ZERO;
+        CACHE[1] = ONE;
+        for (int i = 2; i < CACHE_MAX; i++) {
+            CACHE[i] = new Fixed6(i);
+        }
+        CACHE[CACHE_MAX] = HUNDRED;
+    }
+
+    /**
+     * @param value The whole value.
+     * @return A {@link Fixed6} for the value. Whole values from 0 to 100 are shared instances.
+     */
+    public static Fixed6 valueOf(long value) {
+        return value >= 0 && value <= CACHE_MAX ? CACHE[(int) value] : new Fixed6(value);
+    }
+
+    private static Fixed6 fromRaw(long raw) {
+        if (raw >= 0 && raw <= CACHE_MAX * FACTOR && raw % FACTOR == 0) {
+            return CACHE[(int) (raw / FACTOR)];
+        }
+        return new Fixed6(raw, true);
+    }
+
     private Fixed6(long value, boolean unused) {
         mRawValue = value;
     }
@@ -42,56 +71,105 @@ public class Fixed6 implements Comparable<Fixed6> {
         if (in == null || in.isBlank()) {
             throw new NumberFormatException("empty or null string is not valid");
         }
-        in = Numbers.normalizeNumber(in, localized);
-        if (localized) {
-            char decimal = Numbers.LOCALIZED_DECIMAL_SEPARATOR.charAt(0);
-            if (decimal != '.') {
-                in = in.replace(decimal, '.');
+        if (!parse(in, localized)) {
+            throw new NumberFormatException("invalid number: " + in);
+        }
+    }
+
+    public Fixed6(String in, Fixed6 def, boolean localized) {
+        if (in == null || in.isBlank() || !parse(in, localized)) {
+            mRawValue = def.mRawValue;
+        }
+    }
+
+    /**
+     * Parses the text directly into {@link #mRawValue} in a single pass. Grouping separators are
+     * ignored anywhere, a single leading '+' is permitted, and fraction digits beyond the sixth are
+     * truncated. Text with an exponent is handed off to {@link Double#parseDouble(String)}.
+     *
+     * @return {@code false} if the text is not a valid number.
+     */
+    private boolean parse(String in, boolean localized) {
+        char group   = localized ? Numbers.LOCALIZED_GROUPING_SEPARATOR.charAt(0) : ',';
+        char decimal = localized ? Numbers.LOCALIZED_DECIMAL_SEPARATOR.charAt(0) : '.';
+        int  end     = in.length();
+        int  i       = skipSpace(in, 0, end, group);
+        while (end > i && isSpaceOrGroup(in.charAt(end - 1), group)) {
+            end--;
+        }
+        if (i < end && in.charAt(i) == '+') {
+            i = skipSpace(in, i + 1, end, group);
+        }
+        for (int j = i; j < end; j++) {
+            char ch = in.charAt(j);
+            if (ch == 'e' || ch == 'E') {
+                // Given a floating-point value with an exponent, which technically isn't valid
+                // input, but we'll try to convert it anyway.
+                String buffer = Numbers.normalizeNumber(in, localized);
+                if (decimal != '.') {
+                    buffer = buffer.replace(decimal, '.');
+                }
+                try {
+                    mRawValue = (long) (Double.parseDouble(buffer) * FACTOR);
+                    return true;
+                } catch (NumberFormatException exception) {
+                    return false;
+                }
             }
         }
-        if (in.contains("E") || in.contains("e")) {
-            // Given a floating-point value with an exponent, which technically isn't valid input,
-            // but we'll try to convert it anyway.
-            mRawValue = (long) (Double.parseDouble(in) * FACTOR);
-        } else {
-            boolean  neg   = false;
-            String[] parts = in.split("\\.", 2);
-            if (!parts[0].isBlank()) {
-                if ("-".equals(parts[0]) || "-0".equals(parts[0])) {
-                    neg = true;
-                } else {
-                    mRawValue = Long.parseLong(parts[0]) * FACTOR;
-                    if (mRawValue < 0) {
-                        neg = true;
-                        mRawValue = -mRawValue;
-                    }
+        boolean neg = false;
+        if (i < end) {
+            char ch = in.charAt(i);
+            if (ch == '-') {
+                neg = true;
+                i++;
+            }
+        }
+        long whole = 0;
+        for (; i < end; i++) {
+            char ch = in.charAt(i);
+            if (ch != group) {
+                if (ch == decimal || ch == '.') {
+                    break;
+                }
+                int digit = Character.digit(ch, 10);
+                if (digit < 0 || whole > (Long.MAX_VALUE - digit) / 10) {
+                    return false;
                 }
+                whole = whole * 10 + digit;
             }
-            if (parts.length > 1) {
-                StringBuilder buffer = new StringBuilder();
-                buffer.append('1');
-                buffer.append(parts[1]);
-                if (buffer.length() > 7) {
-                    buffer.setLength(7);
-                } else {
-                    while (buffer.length() < 7) {
-                        buffer.append('0');
+        }
+        long fraction = 0;
+        long scale    = FACTOR;
+        if (i < end) {
+            for (i++; i < end && scale > 1; i++) {
+                char ch = in.charAt(i);
+                if (ch != group) {
+                    int digit = Character.digit(ch, 10);
+                    if (digit < 0) {
+                        return false;
                     }
+                    scale /= 10;
+                    fraction += digit * scale;
                 }
-                mRawValue += Long.parseLong(buffer.toString()) - FACTOR;
-            }
-            if (neg) {
-                mRawValue = -mRawValue;
             }
         }
+        mRawValue = whole * FACTOR + fraction;
+        if (neg) {
+            mRawValue = -mRawValue;
+        }
+        return true;
     }
 
-    public Fixed6(String in, Fixed6 def, boolean localized) {
-        try {
-            mRawValue = new Fixed6(in, localized).mRawValue;
-        } catch (Exception exception) {
-            mRawValue = def.mRawValue;
+    private static int skipSpace(String in, int i, int end, char group) {
+        while (i < end && isSpaceOrGroup(in.charAt(i), group)) {
+            i++;
         }
+        return i;
+    }
+
+    private static boolean isSpaceOrGroup(char ch, char group) {
+        return ch <= ' ' || ch == group;
     }
 
     public Fixed6 add(Fixed6 other) {
@@ -103,12 +181,22 @@ public class Fixed6 implements Comparable<Fixed6> {
     }
 
     public Fixed6 mul(Fixed6 other) {
+        long low  = mRawValue * other.mRawValue;
+        long high = Math.multiplyHigh(mRawValue, other.mRawValue);
+        if (high == (low >> 63)) {
+            // The full 128-bit product fits in a long, so no intermediate overflow is possible
+            return new Fixed6(low / FACTOR, true);
+        }
         // Use BigInteger here to allow cases that would normally overflow in the intermediate
         // stages to work
         return new Fixed6(BigInteger.valueOf(mRawValue).multiply(BigInteger.valueOf(other.mRawValue)).divide(BIG_FACTOR).longValue(), true);
     }
 
     public Fixed6 div(Fixed6 other) {
+        if (mRawValue <= MAX_UNSCALED_DIVIDEND && mRawValue >= -MAX_UNSCALED_DIVIDEND) {
+            // Scaling the dividend up can't overflow, so plain long division is exact
+            return new Fixed6(mRawValue * FACTOR / other.mRawValue, true);
+        }
         // Use BigInteger here to allow cases that would normally overflow in the intermediate
         // stages to work
         return new Fixed6(BigInteger.valueOf(mRawValue).multiply(BIG_FACTOR).divide(BigInteger.valueOf(other.mRawValue)).longValue(), true);
@@ -221,4 +309,68 @@ public class Fixed6 implements Comparable<Fixed6> {
         buffer.append(str.substring(1));
         return buffer.toString();
     }
+
+    /**
+     * A mutable running total, for summing many {@link Fixed6} values without creating an
+     * intermediate instance for each step. Arithmetic matches that of {@link Fixed6}.
+     */
+    public static final class Accumulator {
+        private long mRawValue;
+
+        /** Creates a new accumulator with a value of zero. */
+        public Accumulator() {
+        }
+
+        /** @param value The starting value. */
+        public Accumulator(Fixed6 value) {
+            mRawValue = value.mRawValue;
+        }
+
+        /**
+         * @param value The value to add.
+         * @return This accumulator.
+         */
+        public Accumulator add(Fixed6 value) {
+            mRawValue += value.mRawValue;
+            return this;
+        }
+
+        /**
+         * @param value The value to subtract.
+         * @return This accumulator.
+         */
+        public Accumulator sub(Fixed6 value) {
+            mRawValue -= value.mRawValue;
+            return this;
+        }
+
+        /**
+         * @param value The value to add.
+         * @return This accumulator.
+         */
+        public Accumulator add(Accumulator value) {
+            mRawValue += value.mRawValue;
+            return this;
+        }
+
+        /** Resets the total to zero. */
+        public void reset() {
+            mRawValue = 0;
+        }
+
+        /** @return Whether the total is zero. */
+        public boolean isZero() {
+            return mRawValue == 0;
+        }
+
+        /** @return The current total. */
+        public Fixed6 toFixed6() {
+            return fromRaw(mRawValue);
+        }
+
+        @Override
+        public String toString() {
+            return toFixed6().toString();
+        }
+    }
 }
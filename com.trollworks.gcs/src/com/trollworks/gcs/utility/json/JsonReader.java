@@ -0,0 +1,593 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.utility.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pull parser for JSON, which reports a document one {@link JsonToken} at a time rather than
+ * building it in memory. Values are held in a reusable buffer until the next token is read, and
+ * numbers can be retrieved without boxing.
+ * <p>
+ * Like the rest of the JSON support, the parser is lenient: strings may use single quotes, keys
+ * and string values may be unquoted, keys may be followed by '=' or '=&gt;', values may be
+ * separated by ';', arrays may use parentheses, trailing separators are ignored and an empty
+ * array element is treated as null.
+ */
+public class JsonReader implements Closeable {
+    private static final int       BUFFER_SIZE    = 8192;
+    private static final byte      IN_MAP         = 1;
+    private static final byte      IN_ARRAY       = 2;
+    private static final byte      IN_PARENS      = 3;
+    private static final byte      KIND_INT       = 0;
+    private static final byte      KIND_LONG      = 1;
+    private static final byte      KIND_DOUBLE    = 2;
+    private static final String    STOP           = ",:]}/\\\"[{;=#";
+    private static final String    STOP_IN_PARENS = ",:]})/\\\"[{;=#";
+    private              Reader    mReader;
+    private              char[]    mBuffer        = new char[BUFFER_SIZE];
+    private              int       mPos;
+    private              int       mLimit;
+    private              long      mOffset;
+    private              long      mLineStart;
+    private              int       mLine          = 1;
+    private              boolean   mLastWasCR;
+    private              byte[]    mStack         = new byte[32];
+    private              boolean[] mNeedSeparator = new boolean[32];
+    private              int       mDepth;
+    private              boolean   mStarted;
+    private              JsonToken mToken;
+    private              String    mKey;
+    private              char[]    mText          = new char[64];
+    private              int       mTextLength;
+    private              String    mString;
+    private              byte      mNumberKind;
+    private              long      mLong;
+    private              double    mDouble;
+    private              Number    mNumber;
+
+    /** @param reader The {@link Reader} to read from. It will be buffered internally. */
+    public JsonReader(Reader reader) {
+        mReader = reader;
+    }
+
+    /** @param in The {@link InputStream} to read UTF-8 encoded JSON from. */
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return The token, which is {@link JsonToken#END_DOCUMENT} once the top-level value has been
+     *         read.
+     */
+    public JsonToken next() throws IOException {
+        mKey = null;
+        mString = null;
+        mNumber = null;
+        if (mDepth == 0) {
+            if (mStarted) {
+                mToken = JsonToken.END_DOCUMENT;
+                return mToken;
+            }
+            mStarted = true;
+            return startValue(peekNonWhitespace());
+        }
+        int c = peekNonWhitespace();
+        if (mStack[mDepth - 1] == IN_MAP) {
+            if (mNeedSeparator[mDepth - 1]) {
+                if (c == ',' || c == ';') {
+                    mPos++;
+                    c = peekNonWhitespace();
+                } else if (c != '}') {
+                    throw syntaxError("expected a ',' or '}'");
+                }
+            }
+            if (c == '}') {
+                mPos++;
+                return pop(JsonToken.END_MAP);
+            }
+            if (c == -1) {
+                throw syntaxError("JSON object text must end with '}'");
+            }
+            mKey = readKey(c);
+            c = peekNonWhitespace();
+            if (c == '=') {
+                mPos++;
+                if (peek() == '>') {
+                    mPos++;
+                }
+            } else if (c == ':') {
+                mPos++;
+            } else {
+                throw syntaxError("expected a ':' after a key");
+            }
+            mNeedSeparator[mDepth - 1] = true;
+            return startValue(peekNonWhitespace());
+        }
+        char close = mStack[mDepth - 1] == IN_PARENS ? ')' : ']';
+        if (mNeedSeparator[mDepth - 1]) {
+            if (c == ',' || c == ';') {
+                mPos++;
+                c = peekNonWhitespace();
+                if (c == close) {
+                    mPos++;
+                    return pop(JsonToken.END_ARRAY);
+                }
+            } else if (c == ']' || c == ')') {
+                if (c != close) {
+                    throw syntaxError("expected a '" + close + "'");
+                }
+                mPos++;
+                return pop(JsonToken.END_ARRAY);
+            } else {
+                throw syntaxError("expected a ',' or ']'");
+            }
+        } else if (c == close || c == ']') {
+            // An empty array may be closed with ']' whichever way it was opened
+            mPos++;
+            return pop(JsonToken.END_ARRAY);
+        }
+        mNeedSeparator[mDepth - 1] = true;
+        if (c == ',') {
+            // An empty element, which is left for the next call to consume as a separator
+            mToken = JsonToken.NULL;
+            setText("null");
+            return mToken;
+        }
+        return startValue(c);
+    }
+
+    /** @return The current token. */
+    public JsonToken getToken() {
+        return mToken;
+    }
+
+    /** @return The key of the current value, if it is directly within a map. */
+    public String getKey() {
+        return mKey;
+    }
+
+    /** @return The number of maps and arrays that enclose the current position. */
+    public int getDepth() {
+        return mDepth;
+    }
+
+    /** @return The current value as text. */
+    public String getString() {
+        if (mString == null) {
+            mString = new String(mText, 0, mTextLength);
+        }
+        return mString;
+    }
+
+    /** @return The current value as a boolean. */
+    public boolean getBoolean() {
+        return mToken == JsonToken.BOOLEAN && mTextLength == 4;
+    }
+
+    /** @return The current value as an int, or {@code 0} if it isn't a number. */
+    public int getInt() {
+        return (int) getLong();
+    }
+
+    /** @return The current value as a long, or {@code 0} if it isn't a number. */
+    public long getLong() {
+        if (mToken != JsonToken.NUMBER) {
+            return 0;
+        }
+        return mNumberKind == KIND_DOUBLE ? (long) mDouble : mLong;
+    }
+
+    /** @return The current value as a double, or {@code 0} if it isn't a number. */
+    public double getDouble() {
+        if (mToken != JsonToken.NUMBER) {
+            return 0;
+        }
+        return mNumberKind == KIND_DOUBLE ? mDouble : mLong;
+    }
+
+    /**
+     * @return The current value as an {@link Integer}, {@link Long} or {@link Double}, or {@code
+     *         null} if it isn't a number.
+     */
+    public Number getNumber() {
+        return mToken == JsonToken.NUMBER ? boxNumber() : null;
+    }
+
+    private Number boxNumber() {
+        if (mNumber == null) {
+            mNumber = switch (mNumberKind) {
+                case KIND_INT -> Integer.valueOf((int) mLong);
+                case KIND_LONG -> Long.valueOf(mLong);
+                default -> Double.valueOf(mDouble);
+            };
+        }
+        return mNumber;
+    }
+
+    /**
+     * Reads the current value in its entirety, including the contents of any map or array, which
+     * are built into a {@link JsonMap} or {@link JsonArray}.
+     *
+     * @return The value.
+     */
+    public Object readValue() throws IOException {
+        switch (mToken) {
+        case START_MAP:
+            JsonMap map = new JsonMap();
+            while (next() != JsonToken.END_MAP) {
+                String key = mKey;
+                if (map.has(key)) {
+                    throw new IOException("duplicate key \"" + key + "\"");
+                }
+                map.put(key, readValue());
+            }
+            return map;
+        case START_ARRAY:
+            JsonArray array = new JsonArray();
+            while (next() != JsonToken.END_ARRAY) {
+                array.put(readValue());
+            }
+            return array;
+        case STRING:
+            return getString();
+        case NUMBER:
+            return getNumber();
+        case BOOLEAN:
+            return Boolean.valueOf(getBoolean());
+        case NULL:
+            return JsonNull.INSTANCE;
+        default:
+            throw new IllegalStateException("not positioned at a value");
+        }
+    }
+
+    /** Skips over the current value, including the contents of any map or array. */
+    public void skipValue() throws IOException {
+        if (mToken == JsonToken.START_MAP || mToken == JsonToken.START_ARRAY) {
+            int depth = mDepth;
+            while (mDepth >= depth) {
+                next();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mReader.close();
+    }
+
+    private JsonToken pop(JsonToken token) {
+        mDepth--;
+        mToken = token;
+        return token;
+    }
+
+    private JsonToken push(byte type, JsonToken token) {
+        if (mDepth == mStack.length) {
+            byte[] stack = new byte[mDepth * 2];
+            System.arraycopy(mStack, 0, stack, 0, mDepth);
+            mStack = stack;
+            boolean[] needSeparator = new boolean[mDepth * 2];
+            System.arraycopy(mNeedSeparator, 0, needSeparator, 0, mDepth);
+            mNeedSeparator = needSeparator;
+        }
+        mStack[mDepth] = type;
+        mNeedSeparator[mDepth++] = false;
+        mToken = token;
+        return token;
+    }
+
+    private JsonToken startValue(int c) throws IOException {
+        switch (c) {
+        case '"', '\'' -> {
+            mPos++;
+            readString((char) c);
+            mToken = JsonToken.STRING;
+            return mToken;
+        }
+        case '{' -> {
+            mPos++;
+            return push(IN_MAP, JsonToken.START_MAP);
+        }
+        case '[' -> {
+            mPos++;
+            return push(IN_ARRAY, JsonToken.START_ARRAY);
+        }
+        case '(' -> {
+            mPos++;
+            return push(IN_PARENS, JsonToken.START_ARRAY);
+        }
+        default -> {
+            readUnquoted();
+            mToken = classify();
+            return mToken;
+        }
+        }
+    }
+
+    private String readKey(int c) throws IOException {
+        if (c == '"' || c == '\'') {
+            mPos++;
+            readString((char) c);
+            return getString();
+        }
+        readUnquoted();
+        // Unquoted keys are interpreted the same way unquoted values are
+        return classify() == JsonToken.NUMBER ? boxNumber().toString() : getString();
+    }
+
+    private void readString(char quote) throws IOException {
+        mTextLength = 0;
+        mString = null;
+        mLastWasCR = false;
+        while (true) {
+            if (mPos == mLimit && !fill()) {
+                throw syntaxError("unterminated string");
+            }
+            // Copy runs of plain characters directly from the buffer
+            int start = mPos;
+            while (mPos < mLimit) {
+                char ch = mBuffer[mPos];
+                if (ch == quote || ch == '\\' || ch == '\n' || ch == '\r' || ch == 0) {
+                    break;
+                }
+                mPos++;
+            }
+            appendText(mBuffer, start, mPos - start);
+            if (mPos == mLimit) {
+                continue;
+            }
+            char ch = mBuffer[mPos++];
+            if (ch == quote) {
+                return;
+            }
+            if (ch != '\\') {
+                mPos--;
+                throw syntaxError("unterminated string");
+            }
+            ch = nextChar();
+            switch (ch) {
+            case 'b' -> appendText('\b');
+            case 't' -> appendText('\t');
+            case 'n' -> appendText('\n');
+            case 'f' -> appendText('\f');
+            case 'r' -> appendText('\r');
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw new NumberFormatException("illegal \\u escape");
+                    }
+                    value = value * 16 + digit;
+                }
+                appendText((char) value);
+            }
+            case '"', '\'', '\\', '/' -> appendText(ch);
+            default -> throw syntaxError("illegal escape");
+            }
+        }
+    }
+
+    private char nextChar() throws IOException {
+        if (mPos == mLimit && !fill()) {
+            throw syntaxError("substring bounds error");
+        }
+        return mBuffer[mPos++];
+    }
+
+    private void readUnquoted() throws IOException {
+        mTextLength = 0;
+        mString = null;
+        mLastWasCR = false;
+        // A ')' only ends a value when it could be closing the array the value is in
+        String stop = mDepth > 0 && mStack[mDepth - 1] == IN_PARENS ? STOP_IN_PARENS : STOP;
+        int    c    = peek();
+        while (c >= ' ' && stop.indexOf(c) < 0) {
+            appendText((char) c);
+            mPos++;
+            c = peek();
+        }
+        int start = 0;
+        while (start < mTextLength && mText[start] <= ' ') {
+            start++;
+        }
+        while (mTextLength > start && mText[mTextLength - 1] <= ' ') {
+            mTextLength--;
+        }
+        if (start > 0) {
+            System.arraycopy(mText, start, mText, 0, mTextLength - start);
+            mTextLength -= start;
+        }
+        if (mTextLength == 0) {
+            throw syntaxError("missing value");
+        }
+    }
+
+    private JsonToken classify() {
+        mNumber = null;
+        if (isText("true")) {
+            setText("true");
+            return JsonToken.BOOLEAN;
+        }
+        if (isText("false")) {
+            setText("false");
+            return JsonToken.BOOLEAN;
+        }
+        if (isText("null")) {
+            setText("null");
+            return JsonToken.NULL;
+        }
+        char first = mText[0];
+        if (first >= '0' && first <= '9' || first == '.' || first == '-' || first == '+') {
+            if (parseDecimalLong()) {
+                return JsonToken.NUMBER;
+            }
+            String text = getString();
+            if (first == '0' && text.length() > 2 && (text.charAt(1) == 'x' || text.charAt(1) == 'X')) {
+                try {
+                    mLong = Integer.parseInt(text.substring(2), 16);
+                    mNumberKind = KIND_INT;
+                    return JsonToken.NUMBER;
+                } catch (Exception ignore) {
+                    // Ignore
+                }
+            }
+            try {
+                if (text.indexOf('.') > -1 || text.indexOf('e') > -1 || text.indexOf('E') > -1) {
+                    mDouble = Double.parseDouble(text);
+                    mNumberKind = KIND_DOUBLE;
+                } else {
+                    mLong = Long.parseLong(text);
+                    mNumberKind = mLong == (int) mLong ? KIND_INT : KIND_LONG;
+                }
+                return JsonToken.NUMBER;
+            } catch (Exception ignore) {
+                // Ignore
+            }
+        }
+        return JsonToken.STRING;
+    }
+
+    /** @return {@code true} if the text is a plain integer small enough to parse by hand. */
+    private boolean parseDecimalLong() {
+        int     i        = 0;
+        boolean negative = false;
+        if (mText[0] == '-' || mText[0] == '+') {
+            negative = mText[0] == '-';
+            i++;
+        }
+        int digits = mTextLength - i;
+        if (digits < 1 || digits > 18) {
+            return false;
+        }
+        long value = 0;
+        for (; i < mTextLength; i++) {
+            char ch = mText[i];
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+            value = value * 10 + ch - '0';
+        }
+        mLong = negative ? -value : value;
+        mNumberKind = mLong == (int) mLong ? KIND_INT : KIND_LONG;
+        return true;
+    }
+
+    private boolean isText(String text) {
+        int length = text.length();
+        if (mTextLength != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char ch = mText[i];
+            if (ch >= 'A' && ch <= 'Z') {
+                ch += 'a' - 'A';
+            }
+            if (ch != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setText(String text) {
+        mTextLength = 0;
+        mString = text;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            appendText(text.charAt(i));
+        }
+    }
+
+    private void appendText(char ch) {
+        if (mTextLength == mText.length) {
+            growText(1);
+        }
+        mText[mTextLength++] = ch;
+    }
+
+    private void appendText(char[] buffer, int offset, int length) {
+        if (mTextLength + length > mText.length) {
+            growText(length);
+        }
+        System.arraycopy(buffer, offset, mText, mTextLength, length);
+        mTextLength += length;
+    }
+
+    private void growText(int amount) {
+        char[] text = new char[Math.max(mText.length * 2, mTextLength + amount)];
+        System.arraycopy(mText, 0, text, 0, mTextLength);
+        mText = text;
+    }
+
+    private int peek() throws IOException {
+        if (mPos == mLimit && !fill()) {
+            return -1;
+        }
+        return mBuffer[mPos];
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            if (mPos == mLimit && !fill()) {
+                return -1;
+            }
+            char ch = mBuffer[mPos];
+            if (ch > ' ') {
+                // Only a CR immediately followed by a LF forms a single line ending
+                mLastWasCR = false;
+                return ch;
+            }
+            if (ch == 0) {
+                // The original parser treated a NUL as the end of the stream
+                return -1;
+            }
+            mPos++;
+            if (ch == '\n') {
+                if (!mLastWasCR) {
+                    mLine++;
+                }
+                mLineStart = mOffset + mPos;
+            } else if (ch == '\r') {
+                mLine++;
+                mLineStart = mOffset + mPos;
+            }
+            mLastWasCR = ch == '\r';
+        }
+    }
+
+    private boolean fill() throws IOException {
+        mOffset += mLimit;
+        mPos = 0;
+        mLimit = 0;
+        int count = mReader.read(mBuffer, 0, mBuffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        mLimit = count;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        long index = mOffset + mPos;
+        return new IOException(message + " at " + index + " [character " + (index - mLineStart + 1) + " line " + mLine + "]");
+    }
+}
@@ -13,10 +13,14 @@ package com.trollworks.gcs.utility.json;
 
 import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Base64;
 import java.util.Objects;
 
 public class JsonWriter extends FilterWriter {
+    private static final int BASE64_CHUNK = 3 * 1024;
     private String  mIndent;
     private int     mDepth;
     private boolean mCompact;
@@ -156,6 +160,35 @@ public class JsonWriter extends FilterWriter {
         mNeedComma = true;
     }
 
+    /**
+     * Writes the data as a Base64-encoded string, a chunk at a time, without first building the
+     * encoded text in memory.
+     */
+    public void keyValue(String key, byte[] value) throws IOException {
+        keyValue(key, ByteBuffer.wrap(value));
+    }
+
+    /**
+     * Writes the remaining data as a Base64-encoded string, a chunk at a time, without first
+     * building the encoded text in memory. The position of the buffer is not changed.
+     */
+    public void keyValue(String key, ByteBuffer value) throws IOException {
+        key(key);
+        write('"');
+        // The Base64 alphabet never needs to be escaped, so the encoded text can be written as-is
+        ByteBuffer data  = value.duplicate();
+        byte[]     chunk = new byte[Math.min(BASE64_CHUNK, data.remaining())];
+        try (OutputStream out = Base64.getEncoder().wrap(new CharOutputStream())) {
+            while (data.hasRemaining()) {
+                int count = Math.min(chunk.length, data.remaining());
+                data.get(chunk, 0, count);
+                out.write(chunk, 0, count);
+            }
+        }
+        write('"');
+        mNeedComma = true;
+    }
+
     public void keyValueNot(String key, String value, String not) throws IOException {
         if (!Objects.equals(value, not)) {
             key(key);
@@ -276,4 +309,32 @@ public class JsonWriter extends FilterWriter {
         }
         super.close();
     }
+
+    /** Passes the bytes written to it through to this writer as characters. */
+    private class CharOutputStream extends OutputStream {
+        private char[] mBuffer = new char[BASE64_CHUNK / 3 * 4];
+
+        @Override
+        public void write(int b) throws IOException {
+            JsonWriter.this.write((char) b);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                int count = Math.min(length, mBuffer.length);
+                for (int i = 0; i < count; i++) {
+                    mBuffer[i] = (char) data[offset + i];
+                }
+                JsonWriter.this.write(mBuffer, 0, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void close() {
+            // The writer itself remains open.
+        }
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.utility.text;
+
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Converts the timestamps stored in data files to and from milliseconds since the epoch. All
+ * methods are thread-safe and none of them use exceptions to reject text.
+ */
+public class DateTimeCodec {
+    /**
+     * The formats GCS has written, most recent first. The first is also the format used when
+     * saving.
+     */
+    private static final DateTimeFormatter[]       FORMATS          = {DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT), DateTimeFormatter.ofPattern("MMM d, yyyy, h:mm a", Locale.US), DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.US)};
+    private static final ThreadLocal<DateFormat[]> DATE_TIME_STYLES = ThreadLocal.withInitial(DateTimeCodec::createDateTimeStyles);
+    private static final ThreadLocal<DateFormat[]> DATE_STYLES      = ThreadLocal.withInitial(DateTimeCodec::createDateStyles);
+    private static volatile int                    LAST_FORMAT;
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * @param dateTime The number of milliseconds since midnight, January 1, 1970.
+     * @return The text to store in a data file for the date and time.
+     */
+    public static String format(long dateTime) {
+        return FORMATS[0].format(LocalDateTime.ofInstant(Instant.ofEpochMilli(dateTime), ZoneId.systemDefault()));
+    }
+
+    /**
+     * @param buffer The text to convert.
+     * @return The number of milliseconds since midnight, January 1, 1970, or the current time if
+     *         the text could not be understood.
+     */
+    public static long parseDateTime(String buffer) {
+        if (buffer != null) {
+            buffer = buffer.trim();
+            // Files in a batch were almost always written the same way, so start with whatever
+            // format worked last time
+            int  last   = LAST_FORMAT;
+            long result = parse(FORMATS[last], buffer);
+            if (result != Long.MIN_VALUE) {
+                return result;
+            }
+            for (int i = 0; i < FORMATS.length; i++) {
+                if (i != last) {
+                    result = parse(FORMATS[i], buffer);
+                    if (result != Long.MIN_VALUE) {
+                        LAST_FORMAT = i;
+                        return result;
+                    }
+                }
+            }
+            for (DateFormat format : DATE_TIME_STYLES.get()) {
+                Date date = format.parse(buffer, new ParsePosition(0));
+                if (date != null) {
+                    return date.getTime();
+                }
+            }
+            return parseDate(buffer);
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @param buffer The text to convert.
+     * @return The number of milliseconds since midnight, January 1, 1970, or the current time if
+     *         the text could not be understood.
+     */
+    public static long parseDate(String buffer) {
+        if (buffer != null) {
+            buffer = buffer.trim();
+            for (DateFormat format : DATE_STYLES.get()) {
+                Date date = format.parse(buffer, new ParsePosition(0));
+                if (date != null) {
+                    return date.getTime();
+                }
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    /** @return The time, or {@link Long#MIN_VALUE} if the text isn't in this format. */
+    private static long parse(DateTimeFormatter formatter, String buffer) {
+        ParsePosition    pos    = new ParsePosition(0);
+        TemporalAccessor fields = formatter.parseUnresolved(buffer, pos);
+        if (fields == null || pos.getErrorIndex() != -1 || pos.getIndex() != buffer.length()) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.from(formatter.parse(buffer));
+            // The resolver quietly clamps an out-of-range day, where the older parsers would roll
+            // it over into the next month, so leave those for the older parsers
+            if (fields.isSupported(ChronoField.DAY_OF_MONTH) && fields.getLong(ChronoField.DAY_OF_MONTH) != dateTime.getDayOfMonth()) {
+                return Long.MIN_VALUE;
+            }
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException exception) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static DateFormat[] createDateTimeStyles() {
+        DateFormat[] formats = new DateFormat[(DateFormat.SHORT - DateFormat.FULL + 1) * (DateFormat.SHORT - DateFormat.FULL + 1)];
+        int          index   = 0;
+        for (int i = DateFormat.FULL; i <= DateFormat.SHORT; i++) {
+            for (int j = DateFormat.FULL; j <= DateFormat.SHORT; j++) {
+                formats[index++] = DateFormat.getDateTimeInstance(i, j);
+            }
+        }
+        return formats;
+    }
+
+    private static DateFormat[] createDateStyles() {
+        DateFormat[] formats = new DateFormat[DateFormat.SHORT - DateFormat.FULL + 1];
+        for (int i = DateFormat.FULL; i <= DateFormat.SHORT; i++) {
+            formats[i - DateFormat.FULL] = DateFormat.getDateInstance(i);
+        }
+        return formats;
+    }
+}
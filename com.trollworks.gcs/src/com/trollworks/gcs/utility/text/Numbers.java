@@ -11,7 +11,6 @@
 
 package com.trollworks.gcs.utility.text;
 
-import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
@@ -22,11 +21,19 @@ public class Numbers {
     public static final  String        YES                               = "yes";
     public static final  String        NO                                = "no";
     public static final  String        LOCALIZED_DECIMAL_SEPARATOR       = Character.toString(DecimalFormatSymbols.getInstance().getDecimalSeparator());
-    private static final String        SAFE_LOCALIZED_GROUPING_SEPARATOR = Pattern.quote(Character.toString(DecimalFormatSymbols.getInstance().getGroupingSeparator()));
+    public static final  String        LOCALIZED_GROUPING_SEPARATOR      = Character.toString(DecimalFormatSymbols.getInstance().getGroupingSeparator());
+    private static final String        SAFE_LOCALIZED_GROUPING_SEPARATOR = Pattern.quote(LOCALIZED_GROUPING_SEPARATOR);
+    private static final int           MAX_EXACT_DIGITS                  = 15;
+    private static final double[]      POWERS_OF_TEN                     = new double[23];
     private static final DecimalFormat NUMBER_FORMAT;
     private static final DecimalFormat NUMBER_PLUS_FORMAT;
 
     static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+
         NUMBER_FORMAT = (DecimalFormat) NumberFormat.getNumberInstance();
         NUMBER_FORMAT.setMaximumFractionDigits(5);
 
@@ -58,34 +65,40 @@ public class Numbers {
      * @return The value.
      */
     public static final int extractInteger(String buffer, int def, boolean localized) {
-        buffer = normalizeNumber(buffer, localized);
-        if (hasDecimalSeparator(buffer, localized)) {
-            return (int) extractDouble(buffer, def, localized);
+        return extractInteger((CharSequence) buffer, def, localized);
+    }
+
+    /**
+     * The same as {@link #extractInteger(String, int, boolean)}, but able to work directly on any
+     * {@link CharSequence}, such as a slice of a larger buffer.
+     *
+     * @param buffer    The text to process.
+     * @param def       The default value to return, if the buffer cannot be parsed.
+     * @param localized {@code true} if the text was localized.
+     * @return The value.
+     */
+    public static final int extractInteger(CharSequence buffer, int def, boolean localized) {
+        if (buffer == null) {
+            return def;
         }
-        int multiplier = 1;
-        if (hasBillionsSuffix(buffer)) {
-            multiplier = 1000000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasMillionsSuffix(buffer)) {
-            multiplier = 1000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasThousandsSuffix(buffer)) {
-            multiplier = 1000;
-            buffer = removeSuffix(buffer);
+        NumberSpan span = new NumberSpan(buffer, localized);
+        if (span.contains(localized ? LOCALIZED_DECIMAL_SEPARATOR.charAt(0) : '.')) {
+            // Decimal values have always been normalized a second time before parsing
+            span.skipPlus();
+            return (int) extractDouble(span, def);
         }
-        int max = Integer.MAX_VALUE / multiplier;
-        int min = Integer.MIN_VALUE / multiplier;
-        try {
-            int value = Integer.parseInt(buffer);
-            if (value > max) {
-                value = max;
-            } else if (value < min) {
-                value = min;
-            }
-            return value * multiplier;
-        } catch (Exception exception) {
+        long value = span.parseWhole(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (!span.mValid) {
             return def;
         }
+        int  max   = (int) (Integer.MAX_VALUE / span.mMultiplier);
+        int  min   = (int) (Integer.MIN_VALUE / span.mMultiplier);
+        if (value > max) {
+            value = max;
+        } else if (value < min) {
+            value = min;
+        }
+        return (int) (value * span.mMultiplier);
     }
 
     /**
@@ -123,34 +136,40 @@ public class Numbers {
      * @return The value.
      */
     public static final long extractLong(String buffer, long def, boolean localized) {
-        buffer = normalizeNumber(buffer, localized);
-        if (hasDecimalSeparator(buffer, localized)) {
-            return (int) extractDouble(buffer, def, localized);
+        return extractLong((CharSequence) buffer, def, localized);
+    }
+
+    /**
+     * The same as {@link #extractLong(String, long, boolean)}, but able to work directly on any
+     * {@link CharSequence}, such as a slice of a larger buffer.
+     *
+     * @param buffer    The text to process.
+     * @param def       The default value to return, if the buffer cannot be parsed.
+     * @param localized {@code true} if the text was localized.
+     * @return The value.
+     */
+    public static final long extractLong(CharSequence buffer, long def, boolean localized) {
+        if (buffer == null) {
+            return def;
         }
-        long multiplier = 1;
-        if (hasBillionsSuffix(buffer)) {
-            multiplier = 1000000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasMillionsSuffix(buffer)) {
-            multiplier = 1000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasThousandsSuffix(buffer)) {
-            multiplier = 1000;
-            buffer = removeSuffix(buffer);
+        NumberSpan span = new NumberSpan(buffer, localized);
+        if (span.contains(localized ? LOCALIZED_DECIMAL_SEPARATOR.charAt(0) : '.')) {
+            // Decimal values have always been normalized a second time before parsing
+            span.skipPlus();
+            return (long) extractDouble(span, def);
         }
-        long max = Long.MAX_VALUE / multiplier;
-        long min = Long.MIN_VALUE / multiplier;
-        try {
-            long value = Long.parseLong(buffer);
-            if (value > max) {
-                value = max;
-            } else if (value < min) {
-                value = min;
-            }
-            return value * multiplier;
-        } catch (Exception exception) {
+        long value = span.parseWhole(Long.MIN_VALUE, Long.MAX_VALUE);
+        if (!span.mValid) {
             return def;
         }
+        long max   = Long.MAX_VALUE / span.mMultiplier;
+        long min   = Long.MIN_VALUE / span.mMultiplier;
+        if (value > max) {
+            value = max;
+        } else if (value < min) {
+            value = min;
+        }
+        return value * span.mMultiplier;
     }
 
     /**
@@ -188,39 +207,38 @@ public class Numbers {
      * @return The value.
      */
     public static final double extractDouble(String buffer, double def, boolean localized) {
-        buffer = normalizeNumber(buffer, localized);
-        double multiplier = 1;
-        if (hasBillionsSuffix(buffer)) {
-            multiplier = 1000000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasMillionsSuffix(buffer)) {
-            multiplier = 1000000;
-            buffer = removeSuffix(buffer);
-        } else if (hasThousandsSuffix(buffer)) {
-            multiplier = 1000;
-            buffer = removeSuffix(buffer);
+        return extractDouble((CharSequence) buffer, def, localized);
+    }
+
+    /**
+     * The same as {@link #extractDouble(String, double, boolean)}, but able to work directly on
+     * any {@link CharSequence}, such as a slice of a larger buffer.
+     *
+     * @param buffer    The text to process.
+     * @param def       The default value to return, if the buffer cannot be parsed.
+     * @param localized {@code true} if the text was localized.
+     * @return The value.
+     */
+    public static final double extractDouble(CharSequence buffer, double def, boolean localized) {
+        return buffer == null ? def : extractDouble(new NumberSpan(buffer, localized), def);
+    }
+
+    private static double extractDouble(NumberSpan span, double def) {
+        double value = span.parseDecimal();
+        if (!span.mValid) {
+            return def;
         }
-        double max = Double.MAX_VALUE / multiplier;
+        double multiplier = span.mMultiplier;
+        double max        = Double.MAX_VALUE / multiplier;
         // NOTE: Do not use Double.MIN_VALUE here, as it isn't actually the minimum value... it is
         // merely the minimum POSITIVE value for some reason.
         double min = -max;
-        try {
-            if (localized) {
-                char decimal = LOCALIZED_DECIMAL_SEPARATOR.charAt(0);
-                if (decimal != '.') {
-                    buffer = buffer.replace(decimal, '.');
-                }
-            }
-            double value = Double.parseDouble(buffer);
-            if (value > max) {
-                value = max;
-            } else if (value < min) {
-                value = min;
-            }
-            return value * multiplier;
-        } catch (Exception exception) {
-            return def;
+        if (value > max) {
+            value = max;
+        } else if (value < min) {
+            value = min;
         }
+        return value * multiplier;
     }
 
     /**
@@ -248,17 +266,7 @@ public class Numbers {
      * @return The number of milliseconds since midnight, January 1, 1970.
      */
     public static long extractDate(String buffer) {
-        if (buffer != null) {
-            buffer = buffer.trim();
-            for (int i = DateFormat.FULL; i <= DateFormat.SHORT; i++) {
-                try {
-                    return DateFormat.getDateInstance(i).parse(buffer).getTime();
-                } catch (Exception exception) {
-                    // Ignore
-                }
-            }
-        }
-        return System.currentTimeMillis();
+        return DateTimeCodec.parseDate(buffer);
     }
 
     /**
@@ -266,20 +274,7 @@ public class Numbers {
      * @return The number of milliseconds since midnight, January 1, 1970.
      */
     public static long extractDateTime(String buffer) {
-        if (buffer != null) {
-            buffer = buffer.trim();
-            for (int i = DateFormat.FULL; i <= DateFormat.SHORT; i++) {
-                for (int j = DateFormat.FULL; j <= DateFormat.SHORT; j++) {
-                    try {
-                        return DateFormat.getDateTimeInstance(i, j).parse(buffer).getTime();
-                    } catch (Exception exception) {
-                        // Ignore
-                    }
-                }
-            }
-            return extractDate(buffer);
-        }
-        return System.currentTimeMillis();
+        return DateTimeCodec.parseDateTime(buffer);
     }
 
     /**
@@ -321,26 +316,6 @@ public class Numbers {
         return buffer;
     }
 
-    private static boolean hasDecimalSeparator(String buffer, boolean localized) {
-        return buffer.indexOf(localized ? LOCALIZED_DECIMAL_SEPARATOR.charAt(0) : '.') != -1;
-    }
-
-    private static boolean hasBillionsSuffix(String buffer) {
-        return buffer.endsWith("b") || buffer.endsWith("B") || buffer.endsWith("g") || buffer.endsWith("G");
-    }
-
-    private static boolean hasMillionsSuffix(String buffer) {
-        return buffer.endsWith("m") || buffer.endsWith("M");
-    }
-
-    private static boolean hasThousandsSuffix(String buffer) {
-        return buffer.endsWith("t") || buffer.endsWith("T") || buffer.endsWith("k") || buffer.endsWith("K");
-    }
-
-    private static String removeSuffix(String buffer) {
-        return buffer.substring(0, buffer.length() - 1).trim();
-    }
-
     /**
      * @param value The value to format.
      * @return The formatted value.
@@ -380,4 +355,215 @@ public class Numbers {
     public static String formatWithForcedSign(double value) {
         return NUMBER_PLUS_FORMAT.format(value);
     }
+
+    /**
+     * The portion of some text that holds a number. Finding it follows the same rules as {@link
+     * #normalizeNumber(String, boolean)} followed by removal of a magnitude suffix, but is done in
+     * place, without creating intermediate strings, and the parse methods report bad input through
+     * {@link #mValid}. Only input that looks like an exponent, hexadecimal, NaN or Infinity form is
+     * left to {@link Double#parseDouble(String)}, and so may still throw internally.
+     */
+    private static final class NumberSpan {
+        private CharSequence mText;
+        private char         mGroup;
+        private char         mDecimal;
+        private int          mStart;
+        private int          mEnd;
+        private long         mMultiplier = 1;
+        private boolean      mValid;
+
+        NumberSpan(CharSequence text, boolean localized) {
+            mText = text;
+            mGroup = localized ? LOCALIZED_GROUPING_SEPARATOR.charAt(0) : ',';
+            mDecimal = localized ? LOCALIZED_DECIMAL_SEPARATOR.charAt(0) : '.';
+            mEnd = text.length();
+            mStart = skipSpace(0);
+            mEnd = trimSpace(mEnd);
+            skipPlus();
+            if (mStart < mEnd) {
+                switch (text.charAt(mEnd - 1)) {
+                case 'b', 'B', 'g', 'G' -> mMultiplier = 1000000000;
+                case 'm', 'M' -> mMultiplier = 1000000;
+                case 't', 'T', 'k', 'K' -> mMultiplier = 1000;
+                default -> {
+                }
+                }
+                if (mMultiplier != 1) {
+                    mEnd = trimSpace(mEnd - 1);
+                }
+            }
+        }
+
+        void skipPlus() {
+            if (mStart < mEnd && mText.charAt(mStart) == '+') {
+                mStart = skipSpace(mStart + 1);
+            }
+        }
+
+        boolean contains(char ch) {
+            for (int i = mStart; i < mEnd; i++) {
+                if (mText.charAt(i) == ch) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Parses a whole number with the same rules as {@link Long#parseLong(String)}.
+         *
+         * @return The value. Only meaningful if {@link #mValid} was set.
+         */
+        long parseWhole(long min, long max) {
+            mValid = false;
+            int     i   = mStart;
+            boolean neg = false;
+            if (i < mEnd) {
+                char ch = mText.charAt(i);
+                if (ch == '-') {
+                    neg = true;
+                    i++;
+                } else if (ch == '+') {
+                    i++;
+                }
+            }
+            // Accumulate negatively, since the negative range is the larger of the two
+            long    limit   = neg ? min : -max;
+            long    multMin = limit / 10;
+            long    result  = 0;
+            boolean any     = false;
+            for (; i < mEnd; i++) {
+                char ch = mText.charAt(i);
+                if (ch != mGroup) {
+                    int digit = Character.digit(ch, 10);
+                    if (digit < 0 || result < multMin) {
+                        return 0;
+                    }
+                    result *= 10;
+                    if (result < limit + digit) {
+                        return 0;
+                    }
+                    result -= digit;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return 0;
+            }
+            mValid = true;
+            return neg ? result : -result;
+        }
+
+        /**
+         * Parses a decimal number with the same results as {@link Double#parseDouble(String)}.
+         * Plain values short enough to be converted exactly are handled here. Values that use
+         * other forms {@link Double#parseDouble(String)} accepts, such as an exponent, are handed
+         * off to it; any other character makes the input invalid without calling it.
+         *
+         * @return The value. Only meaningful if {@link #mValid} was set.
+         */
+        double parseDecimal() {
+            mValid = false;
+            int     i   = mStart;
+            boolean neg = false;
+            if (i < mEnd) {
+                char ch = mText.charAt(i);
+                if (ch == '-') {
+                    neg = true;
+                    i++;
+                } else if (ch == '+') {
+                    i++;
+                }
+            }
+            long    mantissa  = 0;
+            int     digits    = 0;
+            int     fraction  = 0;
+            boolean any       = false;
+            boolean seenPoint = false;
+            for (; i < mEnd; i++) {
+                char ch = mText.charAt(i);
+                if (ch == mGroup) {
+                    continue;
+                }
+                if (ch >= '0' && ch <= '9') {
+                    any = true;
+                    if (seenPoint) {
+                        fraction++;
+                    }
+                    // Keep scanning once there are too many digits to be exact, so that bad input
+                    // is still caught here
+                    if ((mantissa != 0 || ch != '0') && ++digits <= MAX_EXACT_DIGITS) {
+                        mantissa = mantissa * 10 + (ch - '0');
+                    }
+                } else if (!seenPoint && (ch == mDecimal || ch == '.')) {
+                    seenPoint = true;
+                } else if (canContinueDouble(ch, i, any, seenPoint)) {
+                    return parseWithDouble();
+                } else {
+                    return 0;
+                }
+            }
+            if (!any) {
+                return 0;
+            }
+            if (digits > MAX_EXACT_DIGITS || fraction >= POWERS_OF_TEN.length) {
+                return parseWithDouble();
+            }
+            // Both the mantissa and the power of ten are exact, so a single division rounds
+            // correctly, just as Double.parseDouble() would
+            double value = mantissa / POWERS_OF_TEN[fraction];
+            mValid = true;
+            return neg ? -value : value;
+        }
+
+        /**
+         * @return {@code true} if the character could be part of a literal accepted by {@link
+         *         Double#parseDouble(String)} at this position, so that only such input pays for
+         *         the exception thrown when it turns out not to be.
+         */
+        private boolean canContinueDouble(char ch, int pos, boolean any, boolean seenPoint) {
+            return switch (ch) {
+            case 'e', 'E' -> any;
+            case 'N', 'I' -> !any && !seenPoint;
+            case 'x', 'X', 'p', 'P' -> any;
+            case 'd', 'D', 'f', 'F' -> any && pos == mEnd - 1;
+            default -> false;
+            };
+        }
+
+        private double parseWithDouble() {
+            StringBuilder buffer = new StringBuilder(mEnd - mStart);
+            for (int i = mStart; i < mEnd; i++) {
+                char ch = mText.charAt(i);
+                if (ch != mGroup) {
+                    buffer.append(ch == mDecimal ? '.' : ch);
+                }
+            }
+            try {
+                double value = Double.parseDouble(buffer.toString());
+                mValid = true;
+                return value;
+            } catch (NumberFormatException exception) {
+                return 0;
+            }
+        }
+
+        private int skipSpace(int pos) {
+            while (pos < mEnd && isSpaceOrGroup(mText.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private int trimSpace(int end) {
+            while (end > mStart && isSpaceOrGroup(mText.charAt(end - 1))) {
+                end--;
+            }
+            return end;
+        }
+
+        private boolean isSpaceOrGroup(char ch) {
+            return ch <= ' ' || ch == mGroup;
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.utility.text;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonicalizes the short strings that data files repeat over and over, such as categories, tech
+ * levels and names, so that each distinct value is only held once. A pool is meant to be used by
+ * a single loader at a time and is not thread-safe. Pools may additionally share their values
+ * through a process-wide pool that only holds weak references, enabled with {@link
+ * #setGlobalEnabled(boolean)}.
+ */
+public class StringPool {
+    /** Strings longer than this are assumed to be unique and are never pooled. */
+    public static final     int                                MAX_LENGTH = 128;
+    private static final    Map<String, WeakReference<String>> GLOBAL     = new WeakHashMap<>();
+    private static volatile boolean                            GLOBAL_ENABLED;
+    private                 String[]                           mTable     = new String[256];
+    private                 int                                mCount;
+
+    /** @return Whether the process-wide pool is in use. */
+    public static boolean isGlobalEnabled() {
+        return GLOBAL_ENABLED;
+    }
+
+    /**
+     * @param enabled Whether new pool entries should also be canonicalized through the
+     *                process-wide pool, so that values are shared between loads, too.
+     */
+    public static void setGlobalEnabled(boolean enabled) {
+        GLOBAL_ENABLED = enabled;
+    }
+
+    /**
+     * @param text The text to canonicalize.
+     * @return The pooled equivalent of the text.
+     */
+    public String intern(String text) {
+        int length = text.length();
+        if (length > MAX_LENGTH) {
+            return text;
+        }
+        int    hash  = text.hashCode();
+        int    mask  = mTable.length - 1;
+        int    index = spread(hash) & mask;
+        String entry;
+        while ((entry = mTable[index]) != null) {
+            if (entry.hashCode() == hash && entry.equals(text)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return add(index, text);
+    }
+
+    /**
+     * Canonicalizes a run of characters. No {@link String} is created when the value is already in
+     * the pool.
+     *
+     * @param buffer The buffer holding the characters.
+     * @param offset The starting index of the characters.
+     * @param length The number of characters.
+     * @return The pooled {@link String} with the same characters.
+     */
+    public String intern(char[] buffer, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(buffer, offset, length);
+        }
+        int end  = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int    mask  = mTable.length - 1;
+        int    index = spread(hash) & mask;
+        String entry;
+        while ((entry = mTable[index]) != null) {
+            if (entry.hashCode() == hash && matches(entry, buffer, offset, length)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return add(index, new String(buffer, offset, length));
+    }
+
+    /** @return The number of distinct strings in this pool. */
+    public int size() {
+        return mCount;
+    }
+
+    private String add(int index, String text) {
+        if (GLOBAL_ENABLED) {
+            text = internGlobally(text);
+        }
+        mTable[index] = text;
+        if (++mCount * 2 > mTable.length) {
+            rehash();
+        }
+        return text;
+    }
+
+    private void rehash() {
+        String[] table = new String[mTable.length * 2];
+        int      mask  = table.length - 1;
+        for (String one : mTable) {
+            if (one != null) {
+                int index = spread(one.hashCode()) & mask;
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = one;
+            }
+        }
+        mTable = table;
+    }
+
+    private static String internGlobally(String text) {
+        synchronized (GLOBAL) {
+            WeakReference<String> ref      = GLOBAL.get(text);
+            String                existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            GLOBAL.put(text, new WeakReference<>(text));
+            return text;
+        }
+    }
+
+    private static boolean matches(String text, char[] buffer, int offset, int length) {
+        if (text.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
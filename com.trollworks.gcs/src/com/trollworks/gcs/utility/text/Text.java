@@ -77,29 +77,45 @@ public class Text {
      * Convert text from other line ending formats into our internal format.
      *
      * @param data The text to convert.
-     * @return The converted text.
+     * @return The converted text. This will be the text passed in if it was already in our
+     *         internal format.
      */
     public static final String standardizeLineEndings(String data) {
-        int           length   = data.length();
-        StringBuilder buffer   = new StringBuilder(length);
-        char          ignoreCh = 0;
-        for (int i = 0; i < length; i++) {
-            char ch = data.charAt(i);
+        // Without a carriage return there is nothing to convert
+        if (data.indexOf('\r') == -1) {
+            return data;
+        }
+        char[] buffer = data.toCharArray();
+        return new String(buffer, 0, standardizeLineEndings(buffer, buffer.length));
+    }
 
+    /**
+     * Convert text from other line ending formats into our internal format, in place.
+     *
+     * @param buffer The text to convert.
+     * @param count  The number of characters in the buffer to convert.
+     * @return The number of characters in the buffer after conversion.
+     */
+    public static final int standardizeLineEndings(char[] buffer, int count) {
+        int  out      = 0;
+        char ignoreCh = 0;
+        for (int i = 0; i < count; i++) {
+            char ch = buffer[i];
             if (ch == ignoreCh) {
                 ignoreCh = 0;
-            } else if (ch == '\r') {
-                ignoreCh = '\n';
-                buffer.append('\n');
-            } else if (ch == '\n') {
-                ignoreCh = '\r';
-                buffer.append('\n');
             } else {
-                ignoreCh = 0;
-                buffer.append(ch);
+                if (ch == '\r') {
+                    ignoreCh = '\n';
+                    ch = '\n';
+                } else if (ch == '\n') {
+                    ignoreCh = '\r';
+                } else {
+                    ignoreCh = 0;
+                }
+                buffer[out++] = ch;
             }
         }
-        return buffer.toString();
+        return out;
     }
 
     /**
@@ -12,12 +12,14 @@
 package com.trollworks.gcs.utility.xml;
 
 import com.trollworks.gcs.utility.text.Numbers;
+import com.trollworks.gcs.utility.text.StringPool;
 import com.trollworks.gcs.utility.text.Text;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
@@ -28,10 +30,11 @@ import java.util.HashMap;
 /** A very simple XML reader with very low memory overhead. */
 public class XMLReader implements AutoCloseable {
     private static final String                  UNEXPECTED_EOF = "Unexpected EOF";
+    private static final int                     STREAM_CHUNK   = 8192;
     private              HashMap<String, String> mEntityMap     = new HashMap<>();
     private              HashMap<String, String> mAttributeMap  = new HashMap<>();
     private              ArrayList<String>       mStack         = new ArrayList<>();
-    private              char[]                  mBuffer        = new char[32768];
+    private              char[]                  mBuffer;
     private              char[]                  mTextBuffer    = new char[128];
     private              XMLNodeType             mType          = XMLNodeType.START_DOCUMENT;
     private              int                     mLine          = 1;
@@ -47,6 +50,8 @@ public class XMLReader implements AutoCloseable {
     private              boolean                 mIsWhitespace;
     private              String                  mName;
     private              boolean                 mIsEmptyElementTag;
+    private              TextStream              mTextStream;
+    private              StringPool              mStringPool;
 
     /**
      * Creates a new {@link XMLReader}.
@@ -94,7 +99,20 @@ public class XMLReader implements AutoCloseable {
      *               created with a {@link Charset} appropriate for the data being read.
      */
     public XMLReader(Reader reader) throws IOException {
+        this(reader, new char[32768]);
+    }
+
+    /**
+     * Creates a new {@link XMLReader} that uses a caller-supplied read buffer, allowing a single
+     * buffer to be reused across many documents.
+     *
+     * @param reader The underlying {@link Reader} to use. It is assumed that the reader has been
+     *               created with a {@link Charset} appropriate for the data being read.
+     * @param buffer The buffer to read into. Must not be shared with another active reader.
+     */
+    public XMLReader(Reader reader, char[] buffer) throws IOException {
         mReader = reader;
+        mBuffer = buffer;
         mPeek0 = reader.read();
         mPeek1 = reader.read();
         mEOF = mPeek0 == -1;
@@ -105,6 +123,20 @@ public class XMLReader implements AutoCloseable {
         defineCharacterEntity("quot", "\"");
     }
 
+    /** @return The {@link StringPool} names, attribute values and text are drawn from, if any. */
+    public StringPool getStringPool() {
+        return mStringPool;
+    }
+
+    /**
+     * @param pool The {@link StringPool} to draw names, attribute values and text from, so that
+     *             repeated values share a single {@link String}. Pass {@code null} to create a new
+     *             {@link String} for each one.
+     */
+    public void setStringPool(StringPool pool) {
+        mStringPool = pool;
+    }
+
     /** Closes the underlying {@link Reader}. */
     @Override
     public void close() throws IOException {
@@ -189,7 +221,10 @@ public class XMLReader implements AutoCloseable {
      * @return The text at the current position.
      */
     public String readText() throws IOException {
-        StringBuilder builder = new StringBuilder();
+        // The common case is a single text node, which is returned as-is; a builder is only
+        // needed to join a second one to it
+        String        text    = null;
+        StringBuilder builder = null;
         String        marker  = getMarker();
 
         if (mType == XMLNodeType.START_TAG) {
@@ -197,16 +232,66 @@ public class XMLReader implements AutoCloseable {
         }
         do {
             if (mType == XMLNodeType.TEXT) {
-                if (!builder.isEmpty()) {
-                    builder.append(' ');
+                if (text == null) {
+                    text = getText();
+                } else {
+                    if (builder == null) {
+                        builder = new StringBuilder(text);
+                    }
+                    if (!builder.isEmpty()) {
+                        builder.append(' ');
+                    }
+                    builder.append(getText());
                 }
-                builder.append(getText());
                 next();
             } else if (mType == XMLNodeType.START_TAG) {
                 skipTag(getName());
             }
         } while (withinMarker(marker));
-        return builder.toString();
+        if (builder != null) {
+            return builder.toString();
+        }
+        return text != null ? text : "";
+    }
+
+    /**
+     * The same as {@link #readText()}, but the text is passed along to a {@link Writer} in chunks
+     * as it is parsed, rather than being collected into a single {@link String}. Only a small
+     * window of the text is held in memory at any one time, making this suitable for very large
+     * text, such as embedded binary data.
+     *
+     * @param out The {@link Writer} to send the text to.
+     */
+    public void readText(Writer out) throws IOException {
+        String     marker = getMarker();
+        TextStream stream = new TextStream(out);
+        if (mType == XMLNodeType.START_TAG) {
+            next(stream);
+        }
+        do {
+            if (mType == XMLNodeType.TEXT) {
+                // Text that was already parsed before we started streaming
+                if (mText != null) {
+                    stream.startNode();
+                    stream.write(mText.toCharArray(), mText.length());
+                } else if (mTextPos > 0) {
+                    stream.startNode();
+                    stream.write(mTextBuffer, mTextPos);
+                    mTextPos = 0;
+                }
+                next(stream);
+            } else if (mType == XMLNodeType.START_TAG) {
+                // Equivalent to skipTag(), except that the text following the child tag is ours
+                String child = getMarker();
+                do {
+                    next();
+                    if (mType == XMLNodeType.END_DOCUMENT) {
+                        fail("expected: " + XMLNodeType.END_TAG.name() + "/" + child.substring(child.indexOf(':') + 1));
+                    }
+                } while (mType != XMLNodeType.END_TAG || !child.equals(getMarker()));
+                next(stream);
+            }
+        } while (withinMarker(marker));
     }
 
     /** @return The boolean value of a call to {@link #readText()}. */
@@ -303,7 +388,7 @@ public class XMLReader implements AutoCloseable {
     }
 
     private String pop(int pos) {
-        String result = new String(mTextBuffer, pos, mTextPos - pos);
+        String result = mStringPool != null ? mStringPool.intern(mTextBuffer, pos, mTextPos - pos) : new String(mTextBuffer, pos, mTextPos - pos);
         mTextPos = pos;
         return result;
     }
@@ -520,8 +605,15 @@ public class XMLReader implements AutoCloseable {
     private boolean pushText(int delimiter) throws IOException {
         boolean whitespace = true;
         int     next       = mPeek0;
+        boolean streaming  = mTextStream != null && delimiter == '<';
 
         while (!mEOF && next != delimiter) { // covers EOF, '<', '"'
+            // Only pass a chunk along once it ends on something other than a line ending, so that a
+            // CR/LF pair is never split between two chunks
+            if (streaming && mTextPos >= STREAM_CHUNK && mTextBuffer[mTextPos - 1] != '\r' && mTextBuffer[mTextPos - 1] != '\n') {
+                mTextStream.write(mTextBuffer, mTextPos);
+                mTextPos = 0;
+            }
             if (delimiter == ' ') {
                 if (next <= ' ' || next == '>') {
                     break;
@@ -591,7 +683,8 @@ public class XMLReader implements AutoCloseable {
     /** @return The text at the current position. */
     public String getText() {
         if (mText == null) {
-            mText = Text.standardizeLineEndings(pop(0));
+            mTextPos = Text.standardizeLineEndings(mTextBuffer, mTextPos);
+            mText = pop(0);
         }
         return mText;
     }
@@ -680,6 +773,22 @@ public class XMLReader implements AutoCloseable {
         return mType;
     }
 
+    private void next(TextStream stream) throws IOException {
+        stream.startNode();
+        mTextStream = stream;
+        try {
+            next();
+        } finally {
+            mTextStream = null;
+        }
+        // Text followed only by a comment is left unreported by next(), but is still part of the
+        // tag's content
+        if (mType == XMLNodeType.TEXT || mTextPos > 0) {
+            stream.write(mTextBuffer, mTextPos);
+            mTextPos = 0;
+        }
+    }
+
     /**
      * Advances to the next position.
      *
@@ -731,4 +840,35 @@ public class XMLReader implements AutoCloseable {
         }
         return mType;
     }
+
+    /**
+     * Passes text along to a {@link Writer}, producing the same result as joining the {@link
+     * #getText()} of each text node with a space, as {@link #readText()} does.
+     */
+    private static final class TextStream {
+        private Writer  mOut;
+        private boolean mAny;
+        private boolean mInNode;
+
+        TextStream(Writer out) {
+            mOut = out;
+        }
+
+        void startNode() {
+            mInNode = false;
+        }
+
+        void write(char[] buffer, int count) throws IOException {
+            if (!mInNode) {
+                mInNode = true;
+                if (mAny) {
+                    mOut.write(' ');
+                }
+            }
+            if (count > 0) {
+                mAny = true;
+            }
+            mOut.write(buffer, 0, Text.standardizeLineEndings(buffer, count));
+        }
+    }
 }
@@ -0,0 +1,341 @@
+/*
+ * Copyright ©1998-2020 by Richard A. Wilkes. All rights reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, version 2.0. If a copy of the MPL was not distributed with
+ * this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * This Source Code Form is "Incompatible With Secondary Licenses", as
+ * defined by the Mozilla Public License, version 2.0.
+ */
+
+package com.trollworks.gcs.weapon;
+
+/**
+ * Breaks an old-style freeform damage string, such as "2d+1 (2) [1d+1 (3) cr] cut", into its
+ * pieces. The grammar is matched by hand in a single forward scan and behaves exactly like the
+ * regular expressions previously used for this:
+ *
+ * <pre>
+ * dice      = \d+[dD]\d*(\s*[+-]\s*\d+)?(\s*[xX]\s*\d+)?
+ * divisor   = \s*(\(\s*(?&lt;divisor&gt;\d+(\.\d+)?|∞)\s*\))?
+ * frag      = \s*(\[\s*(?&lt;frag&gt;dice)\s*(\(\s*(?&lt;fragDivisor&gt;\d+(\.\d+)?|∞)\s*\))?\s*(?&lt;fragType&gt;cr|cut)?\])
+ * standard  = ^\s*\+?\s*(?&lt;dice&gt;dice) divisor frag? \s*(?&lt;remainder&gt;.*)$
+ * alternate = ^\s*(?&lt;dice&gt;[+-]?\s*\d+)?(:(?&lt;perDie&gt;[-+]\d+))? divisor frag? \s*(?&lt;remainder&gt;.*)$
+ * trailing  = ^(?&lt;remainder&gt;.*)frag$
+ * </pre>
+ *
+ * Each optional piece is taken whenever it can be, since no later piece of the grammar could make
+ * use of the characters it would otherwise leave behind.
+ */
+class FreeformDamageParser {
+    private static final char   INFINITY            = '∞';
+    private static final char   LINE_SEPARATOR      = 0x2028;
+    private static final char   PARAGRAPH_SEPARATOR = 0x2029;
+    private              String mText;
+    private              int    mEnd;
+    private              String mDice;
+    private              String mDivisor;
+    private              String mFrag;
+    private              String mFragDivisor;
+    private              String mFragType;
+    private              String mPerDie;
+    private              String mRemainder;
+    private              String mScannedDivisor;
+
+    /**
+     * Matches the text against the standard form, which must start with dice.
+     *
+     * @param text The text to match.
+     * @return Whether the text matched.
+     */
+    boolean matchStandard(String text) {
+        reset(text);
+        int pos = skipSpace(0);
+        if (pos < mEnd && text.charAt(pos) == '+') {
+            pos = skipSpace(pos + 1);
+        }
+        int end = scanDice(pos);
+        if (end == -1) {
+            return false;
+        }
+        mDice = text.substring(pos, end);
+        return matchTail(end);
+    }
+
+    /**
+     * Matches the text against the alternate form, which may start with a plain modifier and a
+     * per-die modifier. Every piece is optional in this form, so it only fails to match when the
+     * remainder spans more than one line.
+     *
+     * @param text The text to match.
+     * @return Whether the text matched.
+     */
+    boolean matchAlternate(String text) {
+        reset(text);
+        int pos = skipSpace(0);
+        int i   = pos;
+        if (i < mEnd && isSign(text.charAt(i))) {
+            i++;
+        }
+        int end = skipDigits(skipSpace(i));
+        if (end != skipSpace(i)) {
+            mDice = text.substring(pos, end);
+            pos = end;
+        }
+        if (pos + 1 < mEnd && text.charAt(pos) == ':' && isSign(text.charAt(pos + 1))) {
+            end = skipDigits(pos + 2);
+            if (end != pos + 2) {
+                mPerDie = text.substring(pos + 1, end);
+                pos = end;
+            }
+        }
+        return matchTail(pos);
+    }
+
+    /**
+     * Matches the text against a trailing fragmentation specification.
+     *
+     * @param text The text to match.
+     * @return Whether the text ended with a fragmentation specification.
+     */
+    boolean matchTrailingFrag(String text) {
+        reset(text);
+        // The frag specification cannot itself contain a '[', so the only candidate is the last one
+        int pos = text.lastIndexOf('[');
+        if (pos == -1 || lineTerminatorBefore(pos)) {
+            return false;
+        }
+        int end = scanFrag(pos);
+        if (end != mEnd) {
+            mFrag = null;
+            mFragDivisor = null;
+            mFragType = null;
+            return false;
+        }
+        mRemainder = text.substring(0, pos);
+        return true;
+    }
+
+    /** @return The dice, or {@code null}. */
+    String getDice() {
+        return mDice;
+    }
+
+    /** @return The armor divisor, or {@code null}. */
+    String getDivisor() {
+        return mDivisor;
+    }
+
+    /** @return The fragmentation dice, or {@code null}. */
+    String getFrag() {
+        return mFrag;
+    }
+
+    /** @return The fragmentation armor divisor, or {@code null}. */
+    String getFragDivisor() {
+        return mFragDivisor;
+    }
+
+    /** @return The fragmentation damage type, or {@code null}. */
+    String getFragType() {
+        return mFragType;
+    }
+
+    /** @return The modifier per die, or {@code null}. */
+    String getPerDie() {
+        return mPerDie;
+    }
+
+    /** @return The remaining, unparsed text. */
+    String getRemainder() {
+        return mRemainder;
+    }
+
+    private void reset(String text) {
+        mText = text;
+        mEnd = text.length();
+        mDice = null;
+        mDivisor = null;
+        mFrag = null;
+        mFragDivisor = null;
+        mFragType = null;
+        mPerDie = null;
+        mRemainder = null;
+    }
+
+    private boolean matchTail(int pos) {
+        pos = skipSpace(pos);
+        int end = scanDivisor(pos);
+        if (end != -1) {
+            mDivisor = mScannedDivisor;
+            pos = end;
+        }
+        pos = skipSpace(pos);
+        end = scanFrag(pos);
+        if (end != -1) {
+            pos = end;
+        }
+        pos = skipSpace(pos);
+        end = findRemainderEnd(pos);
+        if (end == -1) {
+            return false;
+        }
+        mRemainder = mText.substring(pos, end);
+        return true;
+    }
+
+    /** @return The index just past the dice, or -1. */
+    private int scanDice(int pos) {
+        int end = skipDigits(pos);
+        if (end == pos || end == mEnd || Character.toLowerCase(mText.charAt(end)) != 'd') {
+            return -1;
+        }
+        end = skipDigits(end + 1);
+        int i = skipSpace(end);
+        if (i < mEnd && isSign(mText.charAt(i))) {
+            int start = skipSpace(i + 1);
+            i = skipDigits(start);
+            if (i != start) {
+                end = i;
+            }
+        }
+        i = skipSpace(end);
+        if (i < mEnd && Character.toLowerCase(mText.charAt(i)) == 'x') {
+            int start = skipSpace(i + 1);
+            i = skipDigits(start);
+            if (i != start) {
+                end = i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return The index just past a parenthesized divisor starting at pos, or -1. On success, the
+     *         divisor value is left in {@link #mScannedDivisor}.
+     */
+    private int scanDivisor(int pos) {
+        if (pos == mEnd || mText.charAt(pos) != '(') {
+            return -1;
+        }
+        int start = skipSpace(pos + 1);
+        int end   = scanDivisorValue(start);
+        if (end == -1) {
+            return -1;
+        }
+        int close = skipSpace(end);
+        if (close == mEnd || mText.charAt(close) != ')') {
+            return -1;
+        }
+        mScannedDivisor = mText.substring(start, end);
+        return close + 1;
+    }
+
+    private int scanDivisorValue(int pos) {
+        if (pos < mEnd && mText.charAt(pos) == INFINITY) {
+            return pos + 1;
+        }
+        int end = skipDigits(pos);
+        if (end == pos) {
+            return -1;
+        }
+        if (end < mEnd && mText.charAt(end) == '.') {
+            int fraction = skipDigits(end + 1);
+            if (fraction != end + 1) {
+                end = fraction;
+            }
+        }
+        return end;
+    }
+
+    /** @return The index just past a bracketed fragmentation specification starting at pos, or -1. */
+    private int scanFrag(int pos) {
+        if (pos == mEnd || mText.charAt(pos) != '[') {
+            return -1;
+        }
+        int start = skipSpace(pos + 1);
+        int end   = scanDice(start);
+        if (end == -1) {
+            return -1;
+        }
+        String frag        = mText.substring(start, end);
+        String fragDivisor = null;
+        int    i           = skipSpace(end);
+        end = scanDivisor(i);
+        if (end != -1) {
+            fragDivisor = mScannedDivisor;
+            i = end;
+        }
+        i = skipSpace(i);
+        String fragType = null;
+        if (mText.startsWith("cr]", i)) {
+            fragType = "cr";
+            i += 2;
+        } else if (mText.startsWith("cut]", i)) {
+            fragType = "cut";
+            i += 3;
+        }
+        if (i == mEnd || mText.charAt(i) != ']') {
+            return -1;
+        }
+        mFrag = frag;
+        mFragDivisor = fragDivisor;
+        mFragType = fragType;
+        return i + 1;
+    }
+
+    /**
+     * @return The end of a remainder starting at pos, or -1 if it would have to span a line
+     *         terminator, which '.' does not match.
+     */
+    private int findRemainderEnd(int pos) {
+        for (int i = pos; i < mEnd; i++) {
+            if (isLineTerminator(mText.charAt(i))) {
+                return -1;
+            }
+        }
+        return mEnd;
+    }
+
+    private boolean lineTerminatorBefore(int pos) {
+        for (int i = 0; i < pos; i++) {
+            if (isLineTerminator(mText.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int skipSpace(int pos) {
+        while (pos < mEnd && isSpace(mText.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipDigits(int pos) {
+        while (pos < mEnd && isDigit(mText.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isSign(char ch) {
+        return ch == '+' || ch == '-';
+    }
+
+    /** @return Whether the character is one the regular expression '\s' would match. */
+    private static boolean isSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == 0x0B || ch == '\f' || ch == '\r';
+    }
+
+    /** @return Whether the character is one the regular expression '.' would not match. */
+    private static boolean isLineTerminator(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == LINE_SEPARATOR || ch == PARAGRAPH_SEPARATOR;
+    }
+}
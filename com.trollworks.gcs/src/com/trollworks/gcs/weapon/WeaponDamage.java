@@ -35,8 +35,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /** Holds damage a weapon does, broken down for easier manipulation. */
 public class WeaponDamage {
@@ -50,16 +48,6 @@ public class WeaponDamage {
     private static final String         ATTR_FRAGMENTATION_ARMOR_DIVISOR = "fragmentation_armor_divisor";
     private static final String         ATTR_FRAGMENTATION_TYPE          = "fragmentation_type";
     private static final String         ATTR_MODIFIER_PER_DIE            = "modifier_per_die";
-    private static final String         DICE_REGEXP_PIECE                = "\\d+[dD]\\d*(\\s*[+-]\\s*\\d+)?(\\s*[xX]\\s*\\d+)?";
-    private static final String         DIVISOR_REGEXP_PIECE             = "\\s*(\\(\\s*(?<divisor>\\d+(\\.\\d+)?|∞)\\s*\\))?";
-    private static final String         FRAG_REGEXP_PIECE                = "\\s*(\\[\\s*(?<frag>" + DICE_REGEXP_PIECE + ")\\s*(\\(\\s*(?<fragDivisor>\\d+(\\.\\d+)?|∞)\\s*\\))?\\s*(?<fragType>cr|cut)?\\])";
-    private static final String         REMAINDER_REGEXP_PIECE           = "(?<remainder>.*)";
-    private static final String         DAMAGE_REGEXP_STR                = "^\\s*\\+?\\s*(?<dice>" + DICE_REGEXP_PIECE + ")" + DIVISOR_REGEXP_PIECE + FRAG_REGEXP_PIECE + "?\\s*" + REMAINDER_REGEXP_PIECE + "$";
-    private static final String         DAMAGE_ALT_REGEX_STR             = "^\\s*(?<dice>[+-]?\\s*\\d+)?(:(?<perDie>[-+]\\d+))?" + DIVISOR_REGEXP_PIECE + FRAG_REGEXP_PIECE + "?\\s*" + REMAINDER_REGEXP_PIECE + "$";
-    private static final String         TRAILING_FRAG_REGEXP_STR         = "^" + REMAINDER_REGEXP_PIECE + FRAG_REGEXP_PIECE + "$";
-    private static final Pattern        DAMAGE_REGEXP                    = Pattern.compile(DAMAGE_REGEXP_STR);
-    private static final Pattern        DAMAGE_ALT_REGEXP                = Pattern.compile(DAMAGE_ALT_REGEX_STR);
-    private static final Pattern        TRAILING_FRAG_REGEXP             = Pattern.compile(TRAILING_FRAG_REGEXP_STR);
     private              WeaponStats    mOwner;
     private              String         mType;
     private              WeaponSTDamage mST;
@@ -218,33 +206,29 @@ public class WeaponDamage {
         }
 
         // Match against the input
-        boolean hasPerDie = false;
-        Matcher matcher   = DAMAGE_REGEXP.matcher(text);
-        boolean matches   = matcher.matches();
+        boolean              hasPerDie = false;
+        FreeformDamageParser parser    = new FreeformDamageParser();
+        boolean              matches   = parser.matchStandard(text);
         if (!matches) {
-            matcher = DAMAGE_ALT_REGEXP.matcher(text);
-            matches = matcher.matches();
+            matches = parser.matchAlternate(text);
             hasPerDie = true;
         }
         if (matches) {
-            String value = matcher.group("dice");
-            mBase = value != null ? new Dice(value.replaceAll(" ", "").toLowerCase()) : null;
-            value = matcher.group("divisor");
-            mArmorDivisor = value != null ? Numbers.extractDouble(value.replaceAll(" ", ""), 1, false) : 1;
-            extractFragInfo(matcher);
+            String value = parser.getDice();
+            mBase = value != null ? new Dice(value) : null;
+            value = parser.getDivisor();
+            mArmorDivisor = value != null ? Numbers.extractDouble(value, 1, false) : 1;
+            extractFragInfo(parser);
             if (hasPerDie) {
-                value = matcher.group("perDie");
-                mModifierPerDie = value != null ? Numbers.extractInteger(value.trim(), 0, false) : 0;
+                value = parser.getPerDie();
+                mModifierPerDie = value != null ? Numbers.extractInteger(value, 0, false) : 0;
             }
-            mType = matcher.group("remainder");
-            if (mType != null) {
-                matcher = TRAILING_FRAG_REGEXP.matcher(mType);
-                if (matcher.matches()) {
-                    extractFragInfo(matcher);
-                    mType = matcher.group("remainder");
-                }
+            mType = parser.getRemainder();
+            if (parser.matchTrailingFrag(mType)) {
+                extractFragInfo(parser);
+                mType = parser.getRemainder();
             }
-            mType = mType == null ? "" : mType.trim();
+            mType = mType.trim();
         } else {
             // No match, just copy the saved text into type and clear the other fields
             mType = saved;
@@ -258,13 +242,13 @@ public class WeaponDamage {
         }
     }
 
-    private void extractFragInfo(Matcher matcher) {
-        String value = matcher.group("frag");
+    private void extractFragInfo(FreeformDamageParser parser) {
+        String value = parser.getFrag();
         if (value != null) {
-            mFragmentation = new Dice(value.replaceAll(" ", "").toLowerCase());
-            value = matcher.group("fragDivisor");
-            mFragmentationArmorDivisor = value != null ? Numbers.extractDouble(value.replaceAll(" ", ""), 1, false) : 1;
-            mFragmentationType = matcher.group("fragType");
+            mFragmentation = new Dice(value);
+            value = parser.getFragDivisor();
+            mFragmentationArmorDivisor = value != null ? Numbers.extractDouble(value, 1, false) : 1;
+            mFragmentationType = parser.getFragType();
             if (mFragmentationType == null) {
                 mFragmentationType = "cut";
             }